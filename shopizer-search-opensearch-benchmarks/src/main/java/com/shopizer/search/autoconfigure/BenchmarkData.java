@@ -0,0 +1,96 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import modules.commons.search.configuration.SearchConfiguration;
+import modules.commons.search.configuration.SearchHost;
+import modules.commons.search.request.IndexItem;
+
+/**
+ * Sample catalog data shared by benchmarks
+ */
+final class BenchmarkData {
+
+	/**
+	 * _source of a products_ document as returned in search hits
+	 */
+	final static String PRODUCT_SOURCE = "{\"id\":1,\"language\":\"en\",\"store\":\"default\",\"brand\":\"Nike\",\"category\":\"Shoes\","
+			+ "\"name\":\"Racing Zoom Fly 5\","
+			+ "\"description\":\"Bridge the gap between your weekend training run and race day in a durable design that can be deployed not just at the starting line of your favourite race but in the days and months after your conquest.\","
+			+ "\"inventory\":[{\"SKU\":\"ADCG5678\",\"QTY\":\"1000\",\"PRICE\":\"109.99\"}],"
+			+ "\"variants\":[{\"size\":\"S\",\"color\":\"white\"},{\"size\":\"M\",\"color\":\"white\"},{\"size\":\"L\",\"color\":\"white\"}]}";
+
+	private BenchmarkData() {}
+
+	/**
+	 * Module configuration pointing to a local stub server
+	 */
+	static SearchConfiguration configuration(int port) {
+
+		SearchHost host = new SearchHost();
+		host.setScheme("http");
+		host.setHost("127.0.0.1");
+		host.setPort(port);
+
+		List<SearchHost> hosts = new ArrayList<SearchHost>();
+		hosts.add(host);
+
+		SearchConfiguration config = new SearchConfiguration();
+		config.setClusterName("benchmark");
+		config.setHosts(hosts);
+
+		List<String> langs = new ArrayList<String>();
+		langs.add("en");
+		config.setLanguages(langs);
+
+		config.getProductMappings().put("en", "{}");
+		config.getKeywordsMappings().put("en", "{}");
+		config.getSettings().put("en", "{}");
+
+		return config;
+	}
+
+	static List<IndexItem> indexItems(int size) {
+		List<IndexItem> items = new ArrayList<IndexItem>();
+		for(long i = 0; i < size; i++) {
+			items.add(indexItem(i));
+		}
+		return items;
+	}
+
+	static IndexItem indexItem(Long id) {
+
+		IndexItem item = new IndexItem();
+		item.setId(id);
+		item.setLanguage("en");
+		item.setStore("default");
+		item.setBrand("Nike");
+		item.setCategory("Shoes");
+		item.setName("Racing Zoom Fly 5");
+		item.setDescription("Bridge the gap between your weekend training run and race day in a durable design that can be deployed not just at the starting line of your favourite race but in the days and months after your conquest.");
+
+		Map<String,String> inventory = new HashMap<String,String>();
+		inventory.put("SKU", "ADCG5678");
+		inventory.put("QTY", "1000");
+		inventory.put("PRICE", "109.99");
+
+		List<Map<String,String>> inv = new ArrayList<Map<String,String>>();
+		inv.add(inventory);
+		item.setInventory(inv);
+
+		List<Map<String,String>> variants = new ArrayList<Map<String,String>>();
+		for(String size : new String[] {"S", "M", "L"}) {
+			Map<String,String> variant = new HashMap<String,String>();
+			variant.put("size", size);
+			variant.put("color", "white");
+			variants.add(variant);
+		}
+		item.setVariants(variants);
+
+		return item;
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.common.bytes.BytesArray;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.xcontent.XContentHelper;
+import org.opensearch.common.xcontent.XContentType;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import modules.commons.search.request.SearchItem;
+
+/**
+ * Decoding of a hit _source into SearchItem
+ * sourceAsMap reproduces the previous Map + new ObjectMapper per hit path
+ * sourceReader uses the shared SourceReader
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HitDecodingBenchmark {
+
+	private BytesReference source;
+
+	@Setup
+	public void setup() {
+		source = new BytesArray(BenchmarkData.PRODUCT_SOURCE);
+	}
+
+	@Benchmark
+	public SearchItem sourceAsMap() {
+		Map<String, Object> sourceAsMap = XContentHelper.convertToMap(source, false, XContentType.JSON).v2();
+
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+		return mapper.convertValue(sourceAsMap, SearchItem.class);
+	}
+
+	@Benchmark
+	public SearchItem sourceReader() throws Exception {
+		return SourceReader.searchItem(source);
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.shopizer.search.autoconfigure;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.xcontent.XContentFactory;
+
+import modules.commons.search.request.IndexItem;
+
+/**
+ * Product document construction
+ * reflectionMap reproduces the previous per call getDeclaredFields / HashMap path
+ * serializer uses the cached IndexItemSerializer
+ *
+ * Run with -prof gc to compare allocation rates
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexItemSerializerBenchmark {
+
+	private IndexItem item;
+
+	@Setup
+	public void setup() {
+		item = BenchmarkData.indexItem(1L);
+	}
+
+	@Benchmark
+	public BytesReference reflectionMap() throws Exception {
+		Map<String, Object> map = new HashMap<>();
+		for (Field field : item.getClass().getDeclaredFields()) {
+			field.setAccessible(true);
+			try { map.put(field.getName(), field.get(item)); } catch (Exception e) { }
+		}
+		return BytesReference.bytes(XContentFactory.jsonBuilder().map(map));
+	}
+
+	@Benchmark
+	public BytesReference serializer() throws Exception {
+		return BytesReference.bytes(IndexItemSerializer.product(item));
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import modules.commons.search.request.IndexItem;
+import modules.commons.search.request.SearchFilter;
+import modules.commons.search.request.SearchRequest;
+import modules.commons.search.request.SearchResponse;
+
+/**
+ * SearchModuleImpl operations against StubOpenSearchServer
+ * covers query building, request serialization, hit decoding and aggregation mapping
+ *
+ * Run with -prof gc to compare allocation rates
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchModuleBenchmark {
+
+	@Param({"10", "48"})
+	private int hits;
+
+	private StubOpenSearchServer server;
+	private SearchModuleImpl module;
+
+	private SearchRequest productsRequest;
+	private SearchRequest keywordsRequest;
+	private List<IndexItem> items;
+
+	@Setup
+	public void setup() throws Exception {
+		server = new StubOpenSearchServer(hits);
+		module = new SearchModuleImpl(new SearchConfigurationProperties());
+		module.configure(BenchmarkData.configuration(server.getPort()));
+
+		productsRequest = new SearchRequest();
+		productsRequest.setSearchString("Nike");
+		productsRequest.setStore("default");
+		productsRequest.setLanguage("en");
+
+		List<SearchFilter> filters = new ArrayList<SearchFilter>();
+		SearchFilter searchFilter = new SearchFilter();
+		searchFilter.setField("variants.size.keyword");
+		searchFilter.setValue("L");
+		searchFilter.setVariant(true);
+		filters.add(searchFilter);
+		productsRequest.setFilters(filters);
+
+		List<String> aggregations = new ArrayList<String>();
+		aggregations.add("brand");
+		productsRequest.setAggregations(aggregations);
+
+		keywordsRequest = new SearchRequest();
+		keywordsRequest.setSearchString("Fly");
+		keywordsRequest.setStore("default");
+		keywordsRequest.setLanguage("en");
+
+		items = BenchmarkData.indexItems(500);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		module.close();
+		server.close();
+	}
+
+	@Benchmark
+	public SearchResponse searchProducts() throws Exception {
+		return module.searchProducts(productsRequest);
+	}
+
+	@Benchmark
+	public SearchResponse searchKeywords() throws Exception {
+		return module.searchKeywords(keywordsRequest);
+	}
+
+	@Benchmark
+	public SearchResponse searchProductsAndKeywordsAsync() throws Exception {
+		return module.searchProductsAsync(productsRequest)
+				.thenCombine(module.searchKeywordsAsync(keywordsRequest), (products, keywords) -> products)
+				.get();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@BenchmarkMode(Mode.AverageTime)
+	public BulkResult bulkIndex() throws Exception {
+		return module.bulkIndex(items);
+	}
+
+}
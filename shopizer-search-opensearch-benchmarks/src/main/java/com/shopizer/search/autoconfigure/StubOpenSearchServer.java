@@ -0,0 +1,126 @@
+package com.shopizer.search.autoconfigure;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In process http server answering OpenSearch requests with canned responses
+ * so benchmarks measure the client side of the module without a cluster
+ *
+ * HEAD (index exists) 200
+ * GET indices (provisioning) products_en and keywords_en
+ * _search canned hits and a terms aggregation
+ * _bulk one successful item per action line
+ */
+class StubOpenSearchServer implements AutoCloseable {
+
+	private final static byte[] INDICES = ("{\"products_en\":{\"aliases\":{},\"mappings\":{},\"settings\":{}},"
+			+ "\"keywords_en\":{\"aliases\":{},\"mappings\":{},\"settings\":{}}}").getBytes(StandardCharsets.UTF_8);
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final byte[] searchResponse;
+
+	StubOpenSearchServer(int hits) throws IOException {
+		this.searchResponse = searchResponse(hits).getBytes(StandardCharsets.UTF_8);
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		this.executor = Executors.newFixedThreadPool(4);
+		this.server.setExecutor(executor);
+		this.server.createContext("/", this::handle);
+		this.server.start();
+	}
+
+	int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String path = exchange.getRequestURI().getPath();
+			if("HEAD".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(200, -1);
+			} else if("GET".equals(exchange.getRequestMethod()) && !path.contains("/_")) {
+				drain(exchange);
+				respond(exchange, INDICES);
+			} else if(path.endsWith("/_search")) {
+				drain(exchange);
+				respond(exchange, searchResponse);
+			} else if(path.endsWith("/_bulk")) {
+				respond(exchange, bulkResponse(exchange).getBytes(StandardCharsets.UTF_8));
+			} else {
+				drain(exchange);
+				respond(exchange, "{\"acknowledged\":true}".getBytes(StandardCharsets.UTF_8));
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void respond(HttpExchange exchange, byte[] body) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(body);
+		}
+	}
+
+	private void drain(HttpExchange exchange) throws IOException {
+		exchange.getRequestBody().readAllBytes();
+	}
+
+	private String bulkResponse(HttpExchange exchange) throws IOException {
+		StringBuilder items = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				String action = line.startsWith("{\"index\"") ? "index" : line.startsWith("{\"delete\"") ? "delete" : line.startsWith("{\"update\"") ? "update" : null;
+				if(action == null) {
+					continue;
+				}
+				if(items.length() > 0) {
+					items.append(',');
+				}
+				items.append("{\"").append(action).append("\":{\"_index\":\"products_en\",\"_id\":\"1\",\"_version\":1,\"result\":\"updated\",")
+					.append("\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},\"_seq_no\":1,\"_primary_term\":1,\"status\":200}}");
+			}
+		}
+		return "{\"took\":1,\"errors\":false,\"items\":[" + items + "]}";
+	}
+
+	private static String searchResponse(int hits) {
+		StringBuilder response = new StringBuilder();
+		response.append("{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},")
+			.append("\"hits\":{\"total\":{\"value\":").append(hits).append(",\"relation\":\"eq\"},\"max_score\":1.0,\"hits\":[");
+		for(int i = 0; i < hits; i++) {
+			if(i > 0) {
+				response.append(',');
+			}
+			response.append("{\"_index\":\"products_en\",\"_id\":\"").append(i).append("\",\"_score\":1.0,\"_source\":")
+				.append(BenchmarkData.PRODUCT_SOURCE.replace("\"id\":1", "\"id\":" + i))
+				.append('}');
+		}
+		response.append("]},\"aggregations\":{\"sterms#brand\":{\"doc_count_error_upper_bound\":0,\"sum_other_doc_count\":0,\"buckets\":[")
+			.append("{\"key\":\"Nike\",\"doc_count\":").append(hits).append("},")
+			.append("{\"key\":\"Adidas\",\"doc_count\":3},")
+			.append("{\"key\":\"Puma\",\"doc_count\":2}")
+			.append("]}}}");
+		return response.toString();
+	}
+
+}
@@ -0,0 +1,220 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.client.RequestOptions;
+
+import com.shopizer.search.autoconfigure.BulkResult.BulkItemFailure;
+
+/**
+ * Packs write requests into _bulk requests bounded by number of actions and size
+ * and sends them with a limited number of concurrent requests in flight.
+ * Number of actions and concurrent requests are given by the client BulkThrottle.
+ *
+ * Failures are collected per document in a BulkResult, a failing batch
+ * does not stop the following ones. Items rejected by the cluster (429, 503)
+ * are sent again after a backoff, other items of the batch are not resent.
+ *
+ * Not thread safe, one instance per bulk operation
+ */
+class BulkIndexer {
+
+	private final SearchClient client;
+	private final SearchConfigurationProperties.Bulk configuration;
+	private final SearchMetrics metrics;
+	private final BulkThrottle throttle;
+	private final InFlight inFlight = new InFlight();
+	private final BulkResult result = new BulkResult();
+
+	private BulkRequest current = new BulkRequest();
+
+	BulkIndexer(SearchClient client, SearchConfigurationProperties.Bulk configuration, SearchMetrics metrics) {
+		Validate.notNull(client, "SearchClient cannot be null");
+		Validate.notNull(configuration, "Bulk configuration cannot be null");
+		Validate.notNull(metrics, "SearchMetrics cannot be null");
+		this.client = client;
+		this.configuration = configuration;
+		this.metrics = metrics;
+		this.throttle = client.getBulkThrottle();
+	}
+
+	void add(DocWriteRequest<?> request) throws Exception {
+		current.add(request);
+		if(current.numberOfActions() >= throttle.getMaxActions()
+				|| current.estimatedSizeInBytes() >= throttle.getMaxSizeInBytes()) {
+			flush();
+		}
+	}
+
+	/**
+	 * Sends pending requests and waits for all batches in flight
+	 */
+	BulkResult awaitClose() throws Exception {
+		flush();
+		if(!inFlight.awaitEmpty(configuration.getTimeoutInSeconds())) {
+			throw new Exception("Bulk requests did not complete within [" + configuration.getTimeoutInSeconds() + "] seconds");
+		}
+		return result;
+	}
+
+	private void flush() throws Exception {
+		if(current.numberOfActions() == 0) {
+			return;
+		}
+		final BulkRequest request = current;
+		current = new BulkRequest();
+
+		inFlight.acquire();
+		try {
+			send(request, 1);
+		} catch(Exception e) {
+			inFlight.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * The in flight permit is held until the request and its retries complete
+	 */
+	private void send(final BulkRequest request, final int attempt) throws Exception {
+		final long start = System.nanoTime();
+		client.getClient().bulkAsync(request, RequestOptions.DEFAULT, new ActionListener<BulkResponse>() {
+
+			@Override
+			public void onResponse(BulkResponse response) {
+				boolean retrying = false;
+				try {
+					long duration = System.nanoTime() - start;
+					metrics.request("bulk", "_bulk", null, duration, response.status().getStatus());
+					boolean rejected = false;
+					BulkRequest retry = new BulkRequest();
+					BulkItemResponse[] items = response.getItems();
+					for(int i = 0; i < items.length; i++) {
+						BulkItemResponse item = items[i];
+						if(!item.isFailed()) {
+							result.success();
+							continue;
+						}
+						metrics.failure("bulk", item.getIndex(), null, item.status().getStatus());
+						rejected |= item.status().getStatus() == 429;
+						if(RetryPolicy.isRetryable(item.status().getStatus())) {
+							retry.add(request.requests().get(i));
+						} else {
+							result.failure(new BulkItemFailure(item.getIndex(), item.getId(), item.status().getStatus(), item.getFailureMessage()));
+						}
+					}
+					throttle.completed(start, duration, rejected);
+					if(retry.numberOfActions() > 0) {
+						retrying = retry(retry, attempt, response);
+					}
+				} finally {
+					if(!retrying) {
+						inFlight.release();
+					}
+				}
+			}
+
+			@Override
+			public void onFailure(Exception e) {
+				boolean retrying = false;
+				try {
+					int status = ResponseStatus.of(e);
+					long duration = System.nanoTime() - start;
+					metrics.request("bulk", "_bulk", null, duration, status);
+					throttle.completed(start, duration, RetryPolicy.isRetryable(e));
+					if(RetryPolicy.isRetryable(e) && client.getRetryPolicy().allowRetry(attempt)) {
+						retrying = schedule(request, attempt);
+					}
+					if(!retrying) {
+						failed(request, status, e.getMessage());
+					}
+				} finally {
+					if(!retrying) {
+						inFlight.release();
+					}
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Sends again failed items of a response, records them as failures when the retry is not allowed
+	 */
+	private boolean retry(BulkRequest retry, int attempt, BulkResponse response) {
+		if(client.getRetryPolicy().allowRetry(attempt) && schedule(retry, attempt)) {
+			return true;
+		}
+		BulkItemResponse[] items = response.getItems();
+		for(BulkItemResponse item : items) {
+			if(item.isFailed() && RetryPolicy.isRetryable(item.status().getStatus())) {
+				result.failure(new BulkItemFailure(item.getIndex(), item.getId(), item.status().getStatus(), item.getFailureMessage()));
+			}
+		}
+		return false;
+	}
+
+	private boolean schedule(BulkRequest request, int attempt) {
+		try {
+			client.getRetryPolicy().schedule(() -> {
+				try {
+					send(request, attempt + 1);
+				} catch (Exception e) {
+					failed(request, ResponseStatus.of(e), e.getMessage());
+					inFlight.release();
+				}
+			}, attempt);
+			return true;
+		} catch (RuntimeException e) {
+			//scheduler closed
+			return false;
+		}
+	}
+
+	private void failed(BulkRequest request, int status, String message) {
+		for(DocWriteRequest<?> r : request.requests()) {
+			metrics.failure("bulk", r.index(), null, status);
+			result.failure(new BulkItemFailure(r.index(), r.id(), status, message));
+		}
+	}
+
+	/**
+	 * Bulk requests in flight, limit read from the throttle on each acquire
+	 */
+	private class InFlight {
+
+		private int count = 0;
+
+		synchronized void acquire() throws InterruptedException {
+			while(count >= throttle.getConcurrentRequests()) {
+				wait();
+			}
+			count++;
+		}
+
+		synchronized void release() {
+			count--;
+			notifyAll();
+		}
+
+		synchronized boolean awaitEmpty(long timeoutInSeconds) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutInSeconds);
+			while(count > 0) {
+				long remaining = deadline - System.nanoTime();
+				if(remaining <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+			return true;
+		}
+
+	}
+
+}
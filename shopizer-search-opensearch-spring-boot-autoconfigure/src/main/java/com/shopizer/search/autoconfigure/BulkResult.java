@@ -0,0 +1,91 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome of a bulk operation
+ * Counts successful documents and keeps every failed document
+ * so the caller can decide what to retry or report
+ */
+public class BulkResult {
+
+	private final AtomicLong successful = new AtomicLong();
+	private final List<BulkItemFailure> failures = Collections.synchronizedList(new ArrayList<BulkItemFailure>());
+
+
+	void success() {
+		successful.incrementAndGet();
+	}
+
+	void success(long count) {
+		successful.addAndGet(count);
+	}
+
+	void failure(BulkItemFailure failure) {
+		failures.add(failure);
+	}
+
+	void add(BulkResult result) {
+		successful.addAndGet(result.getSuccessful());
+		failures.addAll(result.getFailures());
+	}
+
+	public long getSuccessful() {
+		return successful.get();
+	}
+
+	public List<BulkItemFailure> getFailures() {
+		synchronized (failures) {
+			return new ArrayList<BulkItemFailure>(failures);
+		}
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+
+	public static class BulkItemFailure {
+
+		private final String index;
+		private final String id;
+		private final int status;
+		private final String message;
+
+		BulkItemFailure(String index, String id, int status, String message) {
+			this.index = index;
+			this.id = id;
+			this.status = status;
+			this.message = message;
+		}
+
+		public String getIndex() {
+			return index;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		/**
+		 * Http status of the failed item, 0 when the whole request did not reach the cluster
+		 */
+		public int getStatus() {
+			return status;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		@Override
+		public String toString() {
+			return "[" + index + "/" + id + "] " + status + " " + message;
+		}
+
+	}
+
+}
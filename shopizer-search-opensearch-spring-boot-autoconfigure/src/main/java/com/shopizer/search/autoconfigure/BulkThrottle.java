@@ -0,0 +1,86 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Number of actions per _bulk request and concurrent _bulk requests
+ *
+ * Fixed search.opensearch.bulk values unless search.opensearch.adaptive-bulk is enabled,
+ * limits are then tuned from completed bulk requests (AIMD)
+ * 	a request completing under the target latency increases the batch size by a step,
+ * 	once at the maximum batch size concurrency is increased by one
+ * 	a rejected (429) or slow request divides batch size and concurrency by the decrease factor
+ *
+ * Requests sent before the last decrease were sized with the previous limits, their completions
+ * are ignored so concurrent slow responses decrease the limits once.
+ * Limits are published to SearchMetrics when created and on each change.
+ *
+ * Shared by all bulk operations of a client
+ */
+class BulkThrottle {
+
+	private final SearchConfigurationProperties.Bulk bulk;
+	private final SearchConfigurationProperties.AdaptiveBulk adaptive;
+	private final SearchMetrics metrics;
+
+	private volatile int maxActions;
+	private volatile int concurrentRequests;
+	private long lastDecrease = System.nanoTime();
+
+	BulkThrottle(SearchConfigurationProperties.Bulk bulk, SearchConfigurationProperties.AdaptiveBulk adaptive, SearchMetrics metrics) {
+		Validate.notNull(bulk, "Bulk configuration cannot be null");
+		Validate.notNull(adaptive, "AdaptiveBulk configuration cannot be null");
+		Validate.notNull(metrics, "SearchMetrics cannot be null");
+		this.bulk = bulk;
+		this.adaptive = adaptive;
+		this.metrics = metrics;
+		if(adaptive.isEnabled()) {
+			this.maxActions = bound(bulk.getMaxActions(), adaptive.getMinActions(), adaptive.getMaxActions());
+			this.concurrentRequests = bound(bulk.getConcurrentRequests(), adaptive.getMinConcurrentRequests(), adaptive.getMaxConcurrentRequests());
+		} else {
+			this.maxActions = bulk.getMaxActions();
+			this.concurrentRequests = Math.max(1, bulk.getConcurrentRequests());
+		}
+		metrics.bulkLimits(maxActions, concurrentRequests);
+	}
+
+	int getMaxActions() {
+		return maxActions;
+	}
+
+	int getConcurrentRequests() {
+		return concurrentRequests;
+	}
+
+	long getMaxSizeInBytes() {
+		return bulk.getMaxSizeInBytes();
+	}
+
+	/**
+	 * @param startInNanos System.nanoTime() when the bulk request was sent
+	 * @param durationInNanos latency of the bulk request
+	 * @param rejected request or some of its items rejected by the cluster
+	 */
+	synchronized void completed(long startInNanos, long durationInNanos, boolean rejected) {
+		if(!adaptive.isEnabled() || startInNanos - lastDecrease < 0) {
+			return;
+		}
+		if(rejected || durationInNanos > TimeUnit.MILLISECONDS.toNanos(adaptive.getTargetLatencyInMillis())) {
+			maxActions = bound((int)(maxActions * adaptive.getDecreaseFactor()), adaptive.getMinActions(), adaptive.getMaxActions());
+			concurrentRequests = bound((int)(concurrentRequests * adaptive.getDecreaseFactor()), adaptive.getMinConcurrentRequests(), adaptive.getMaxConcurrentRequests());
+			lastDecrease = System.nanoTime();
+		} else if(maxActions < adaptive.getMaxActions()) {
+			maxActions = bound(maxActions + adaptive.getIncreaseStep(), adaptive.getMinActions(), adaptive.getMaxActions());
+		} else {
+			concurrentRequests = bound(concurrentRequests + 1, adaptive.getMinConcurrentRequests(), adaptive.getMaxConcurrentRequests());
+		}
+		metrics.bulkLimits(maxActions, concurrentRequests);
+	}
+
+	private static int bound(int value, int min, int max) {
+		return Math.max(Math.max(1, min), Math.min(value, max));
+	}
+
+}
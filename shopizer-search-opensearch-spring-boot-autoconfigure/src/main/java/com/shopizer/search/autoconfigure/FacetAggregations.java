@@ -0,0 +1,91 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.nested.Nested;
+import org.opensearch.search.aggregations.bucket.nested.ReverseNested;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.aggregations.bucket.terms.Terms.Bucket;
+import org.opensearch.search.builder.SearchSourceBuilder;
+
+import modules.commons.search.request.Aggregation;
+
+/**
+ * One terms aggregation named after each requested field
+ * Variant fields (variants.size, variants.color ...) are aggregated in a nested
+ * aggregation, bucket counts are products (reverse nested) not variants
+ */
+final class FacetAggregations {
+	
+	private final static String VARIANTS = "variants";
+	private final static String VARIANTS_PREFIX = VARIANTS + ".";
+	private final static String PRODUCTS = "products";
+	
+	private FacetAggregations() {}
+	
+	static void build(SearchSourceBuilder searchSourceBuilder, List<String> fields, SearchConfigurationProperties.Facets configuration) {
+		for(String field : fields) {
+			Validate.notBlank(field, "Aggregation field must not be blank");
+			
+			AggregationBuilder terms = AggregationBuilders.terms(field)
+					.field(field)
+					.size(configuration.getSizes().getOrDefault(field, configuration.getSize()))
+					.minDocCount(configuration.getMinDocCount());
+			
+			if(isVariant(field)) {
+				terms.subAggregation(AggregationBuilders.reverseNested(PRODUCTS));
+				searchSourceBuilder.aggregation(AggregationBuilders.nested(field, VARIANTS).subAggregation(terms));
+			} else {
+				searchSourceBuilder.aggregation(terms);
+			}
+		}
+	}
+	
+	/**
+	 * @return buckets of a field, empty when the aggregation is not in the response
+	 */
+	static List<Aggregation> read(Aggregations aggregations, String field) {
+		
+		List<Aggregation> buckets = new ArrayList<Aggregation>();
+		if(aggregations == null) {
+			return buckets;
+		}
+		
+		boolean variant = isVariant(field);
+		Terms terms;
+		if(variant) {
+			Nested nested = aggregations.get(field);
+			terms = nested == null ? null : nested.getAggregations().get(field);
+		} else {
+			terms = aggregations.get(field);
+		}
+		
+		if(terms == null) {
+			return buckets;
+		}
+		
+		//get count per aggregations
+		for(Bucket bucket : terms.getBuckets()) {
+			Aggregation agg = new Aggregation();
+			agg.setName(bucket.getKeyAsString());
+			if(variant) {
+				ReverseNested products = bucket.getAggregations().get(PRODUCTS);
+				agg.setCount(products.getDocCount());
+			} else {
+				agg.setCount(bucket.getDocCount());
+			}
+			buckets.add(agg);
+		}
+		return buckets;
+	}
+	
+	private static boolean isVariant(String field) {
+		return field.startsWith(VARIANTS_PREFIX);
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import modules.commons.search.request.Aggregation;
+import modules.commons.search.request.SearchResponse;
+
+/**
+ * Products search response keeping aggregations by requested field
+ * getAggregations() contains buckets of all fields in requested order
+ */
+public class FacetedSearchResponse extends SearchResponse {
+	
+	private Map<String, List<Aggregation>> facets = new LinkedHashMap<String, List<Aggregation>>();
+
+	/**
+	 * @return buckets by aggregation field
+	 */
+	public Map<String, List<Aggregation>> getFacets() {
+		return facets;
+	}
+
+	public void setFacets(Map<String, List<Aggregation>> facets) {
+		this.facets = facets;
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.opensearch.action.ActionListener;
+
+/**
+ * Bridges OpenSearch client *Async callbacks to a CompletableFuture
+ * The response is converted to the module type on the client IO thread,
+ * conversion errors complete the future exceptionally
+ *
+ * @param <T> OpenSearch response
+ * @param <R> module response
+ */
+class FutureActionListener<T, R> implements ActionListener<T> {
+
+	@FunctionalInterface
+	interface ResponseMapper<T, R> {
+		R map(T response) throws Exception;
+	}
+
+	private final CompletableFuture<R> future = new CompletableFuture<R>();
+	private final ResponseMapper<T, R> mapper;
+
+	FutureActionListener(ResponseMapper<T, R> mapper) {
+		this.mapper = mapper;
+	}
+
+	CompletableFuture<R> future() {
+		return future;
+	}
+
+	@Override
+	public void onResponse(T response) {
+		try {
+			future.complete(mapper.map(response));
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	@Override
+	public void onFailure(Exception e) {
+		future.completeExceptionally(e);
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Dedicated products_{store}_{lang} and keywords_{store}_{lang} for large stores,
+ * products_{lang} and keywords_{lang} shared by other stores
+ */
+public class HybridIndexNamingStrategy implements IndexNamingStrategy {
+	
+	private final SharedIndexNamingStrategy shared = new SharedIndexNamingStrategy();
+	private final PerStoreIndexNamingStrategy dedicated = new PerStoreIndexNamingStrategy();
+	private final Set<String> dedicatedStores = new HashSet<String>();
+	
+	/**
+	 * @param dedicatedStores codes of stores having their own indices
+	 */
+	public HybridIndexNamingStrategy(Collection<String> dedicatedStores) {
+		Validate.notNull(dedicatedStores, "dedicatedStores cannot be null");
+		dedicatedStores.forEach(s -> this.dedicatedStores.add(PerStoreIndexNamingStrategy.normalize(s)));
+	}
+
+	@Override
+	public String index(String prefix, String store, String language) {
+		if(store != null && dedicatedStores.contains(PerStoreIndexNamingStrategy.normalize(store))) {
+			return dedicated.index(prefix, store, language);
+		}
+		return shared.index(prefix, store, language);
+	}
+
+	@Override
+	public List<String> indices(String prefix, String language) {
+		List<String> indices = new ArrayList<String>(shared.indices(prefix, language));
+		indices.addAll(dedicated.indices(prefix, language));
+		return indices;
+	}
+
+	@Override
+	public List<String> provisionedIndices(String prefix, String language) {
+		return shared.provisionedIndices(prefix, language);
+	}
+
+	@Override
+	public List<String> templatePatterns(String prefix, String language) {
+		return dedicated.templatePatterns(prefix, language);
+	}
+
+	@Override
+	public boolean dependsOnStore() {
+		return true;
+	}
+
+}
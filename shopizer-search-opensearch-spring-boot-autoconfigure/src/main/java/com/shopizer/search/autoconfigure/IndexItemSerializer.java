@@ -0,0 +1,81 @@
+package com.shopizer.search.autoconfigure;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentFactory;
+
+import modules.commons.search.request.IndexItem;
+
+/**
+ * Writes IndexItem documents straight to json
+ * Fields of a class are resolved and made accessible once then cached,
+ * null values are not written to the document
+ */
+class IndexItemSerializer {
+
+	private final static ConcurrentMap<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<Class<?>, Field[]>();
+
+	private IndexItemSerializer() {}
+
+	/**
+	 * products_ document, every non null field of the item
+	 */
+	static XContentBuilder product(IndexItem item) throws IOException {
+		XContentBuilder builder = XContentFactory.jsonBuilder();
+		builder.startObject();
+		write(item, builder);
+		builder.endObject();
+		return builder;
+	}
+
+	/**
+	 * keywords_ document, store and suggestions
+	 */
+	static XContentBuilder keyword(IndexItem item) throws IOException {
+		XContentBuilder builder = XContentFactory.jsonBuilder();
+		builder.startObject();
+		builder.field("store", item.getStore());
+		builder.field("suggestions", item.getName());
+		builder.endObject();
+		return builder;
+	}
+
+	static void write(Object obj, XContentBuilder builder) throws IOException {
+		for(Field field : fields(obj.getClass())) {
+			Object value;
+			try {
+				value = field.get(obj);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Cannot read field [" + field.getName() + "] of " + obj.getClass().getName(), e);
+			}
+			if(value != null) {
+				builder.field(field.getName(), value);
+			}
+		}
+	}
+
+	private static Field[] fields(Class<?> type) {
+		Field[] fields = FIELDS.get(type);
+		if(fields == null) {
+			List<Field> accessible = new ArrayList<Field>();
+			for (Field field : type.getDeclaredFields()) {
+				if(Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+					continue;
+				}
+				field.setAccessible(true);
+				accessible.add(field);
+			}
+			fields = accessible.toArray(new Field[accessible.size()]);
+			FIELDS.putIfAbsent(type, fields);
+		}
+		return fields;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.List;
+
+/**
+ * Names of products and keywords indices of a store and language
+ * 
+ * Built in layouts (search.opensearch.index-layout.type)
+ * 	shared all stores in products_{lang} and keywords_{lang}
+ * 	per-store one products_{store}_{lang} and keywords_{store}_{lang} per store
+ * 	hybrid dedicated indices for configured stores, shared indices for the others
+ * 
+ * A custom strategy can be provided as a bean
+ */
+public interface IndexNamingStrategy {
+	
+	String PRODUCTS = "products_";
+	String KEYWORDS = "keywords_";
+	
+	/**
+	 * Index holding documents of a store
+	 * @param prefix PRODUCTS or KEYWORDS
+	 * @param store store code, can be null for layouts not depending on the store
+	 * @param language
+	 */
+	String index(String prefix, String store, String language);
+	
+	/**
+	 * Indices or wildcard expressions covering documents of all stores in a language
+	 */
+	List<String> indices(String prefix, String language);
+	
+	/**
+	 * Indices created when the module is configured
+	 */
+	List<String> provisionedIndices(String prefix, String language);
+	
+	/**
+	 * Wildcard patterns of indices created on first write,
+	 * installed as index templates with configured mappings and settings
+	 */
+	List<String> templatePatterns(String prefix, String language);
+	
+	/**
+	 * Index depends on the store, documents of an unknown store can be in any index
+	 */
+	boolean dependsOnStore();
+	
+	static IndexNamingStrategy of(SearchConfigurationProperties.IndexLayout layout) {
+		switch(layout.getType()) {
+			case PER_STORE:
+				return new PerStoreIndexNamingStrategy();
+			case HYBRID:
+				return new HybridIndexNamingStrategy(layout.getDedicatedStores());
+			default:
+				return new SharedIndexNamingStrategy();
+		}
+	}
+
+}
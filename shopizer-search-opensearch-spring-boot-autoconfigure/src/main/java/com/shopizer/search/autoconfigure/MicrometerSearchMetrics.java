@@ -0,0 +1,128 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.Validate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Micrometer implementation of SearchMetrics
+ * Meters are tagged with the logical index (products, keywords), names of concrete
+ * indices (language, store, reindex version) would create new time series on each reindex
+ * 
+ * shopizer.search.requests timer (percentiles, histogram when enabled) tagged by operation, index, language and status
+ * shopizer.search.failures counter tagged by operation, index, language and status
+ * shopizer.search.hits distribution summary tagged by index and language
+ * shopizer.search.document.size distribution summary tagged by index and language
+ * shopizer.search.bulk.max.actions and shopizer.search.bulk.concurrent.requests gauges
+ * shopizer.search.cache counter tagged by cache and result (hit, miss)
+ */
+public class MicrometerSearchMetrics implements SearchMetrics {
+	
+	private final static String PREFIX = "shopizer.search.";
+	
+	private final MeterRegistry registry;
+	private final boolean percentileHistogram;
+	private final AtomicInteger bulkMaxActions = new AtomicInteger();
+	private final AtomicInteger bulkConcurrentRequests = new AtomicInteger();
+	
+	public MicrometerSearchMetrics(MeterRegistry registry) {
+		this(registry, false);
+	}
+	
+	/**
+	 * @param percentileHistogram publish histogram buckets of request latencies for aggregatable percentiles
+	 */
+	public MicrometerSearchMetrics(MeterRegistry registry, boolean percentileHistogram) {
+		Validate.notNull(registry, "MeterRegistry cannot be null");
+		this.registry = registry;
+		this.percentileHistogram = percentileHistogram;
+		Gauge.builder(PREFIX + "bulk.max.actions", bulkMaxActions, AtomicInteger::get)
+			.description("Actions per bulk request")
+			.register(registry);
+		Gauge.builder(PREFIX + "bulk.concurrent.requests", bulkConcurrentRequests, AtomicInteger::get)
+			.description("Concurrent bulk requests")
+			.register(registry);
+	}
+
+	@Override
+	public void request(String operation, String index, String language, long durationInNanos, int status) {
+		Timer.builder(PREFIX + "requests")
+			.description("Requests sent to OpenSearch")
+			.tags("operation", operation, "index", index(index), "language", tag(language), "status", String.valueOf(status))
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.publishPercentileHistogram(percentileHistogram)
+			.register(registry)
+			.record(durationInNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void failure(String operation, String index, String language, int status) {
+		Counter.builder(PREFIX + "failures")
+			.description("Failed requests and documents")
+			.tags("operation", operation, "index", index(index), "language", tag(language), "status", String.valueOf(status))
+			.register(registry)
+			.increment();
+	}
+
+	@Override
+	public void hits(String index, String language, long hits) {
+		DistributionSummary.builder(PREFIX + "hits")
+			.description("Hits returned by a search")
+			.tags("index", index(index), "language", tag(language))
+			.register(registry)
+			.record(hits);
+	}
+
+	@Override
+	public void documentSize(String index, String language, long sizeInBytes) {
+		DistributionSummary.builder(PREFIX + "document.size")
+			.description("Size of indexed documents")
+			.baseUnit("bytes")
+			.tags("index", index(index), "language", tag(language))
+			.register(registry)
+			.record(sizeInBytes);
+	}
+	
+	@Override
+	public void bulkLimits(int maxActions, int concurrentRequests) {
+		bulkMaxActions.set(maxActions);
+		bulkConcurrentRequests.set(concurrentRequests);
+	}
+	
+	@Override
+	public void cache(String cache, boolean hit) {
+		Counter.builder(PREFIX + "cache")
+			.description("Search cache lookups")
+			.tags("cache", cache, "result", hit ? "hit" : "miss")
+			.register(registry)
+			.increment();
+	}
+	
+	/**
+	 * Logical index of a concrete index, api endpoints such as _bulk are kept
+	 */
+	private String index(String index) {
+		if(index == null) {
+			return tag(index);
+		}
+		if(index.startsWith(IndexNamingStrategy.PRODUCTS)) {
+			return "products";
+		}
+		if(index.startsWith(IndexNamingStrategy.KEYWORDS)) {
+			return "keywords";
+		}
+		return index;
+	}
+	
+	private String tag(String value) {
+		return value == null ? "none" : value;
+	}
+
+}
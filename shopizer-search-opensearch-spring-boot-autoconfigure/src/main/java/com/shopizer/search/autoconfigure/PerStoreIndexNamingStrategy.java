@@ -0,0 +1,47 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * One products_{store}_{lang} and keywords_{store}_{lang} per store
+ * Indices are created on first write from index templates
+ */
+public class PerStoreIndexNamingStrategy implements IndexNamingStrategy {
+
+	@Override
+	public String index(String prefix, String store, String language) {
+		Validate.notNull(store, "Store is required by the per store index layout");
+		return new StringBuilder().append(prefix).append(normalize(store)).append("_").append(language).toString();
+	}
+
+	@Override
+	public List<String> indices(String prefix, String language) {
+		return templatePatterns(prefix, language);
+	}
+
+	@Override
+	public List<String> provisionedIndices(String prefix, String language) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public List<String> templatePatterns(String prefix, String language) {
+		return Collections.singletonList(new StringBuilder().append(prefix).append("*_").append(language).toString());
+	}
+
+	@Override
+	public boolean dependsOnStore() {
+		return true;
+	}
+	
+	/**
+	 * Index names are lower case without special characters
+	 */
+	static String normalize(String store) {
+		return store.toLowerCase().replaceAll("[^a-z0-9_\\-]", "_");
+	}
+
+}
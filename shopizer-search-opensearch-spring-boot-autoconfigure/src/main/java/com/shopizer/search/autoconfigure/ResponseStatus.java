@@ -0,0 +1,44 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import org.opensearch.OpenSearchException;
+import org.opensearch.client.ResponseException;
+import org.opensearch.common.xcontent.StatusToXContentObject;
+
+/**
+ * Http status of OpenSearch responses and failures
+ */
+final class ResponseStatus {
+	
+	private ResponseStatus() {}
+	
+	/**
+	 * Status of a response, 200 when the response does not carry one
+	 */
+	static int of(Object response) {
+		if(response instanceof StatusToXContentObject) {
+			return ((StatusToXContentObject)response).status().getStatus();
+		}
+		return 200;
+	}
+	
+	/**
+	 * Status of a failure, 0 when no response was received (connection error, timeout)
+	 */
+	static int of(Throwable e) {
+		Throwable cause = e;
+		while((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		if(cause instanceof OpenSearchException) {
+			return ((OpenSearchException)cause).status().getStatus();
+		}
+		if(cause instanceof ResponseException) {
+			return ((ResponseException)cause).getResponse().getStatusLine().getStatusCode();
+		}
+		return 0;
+	}
+
+}
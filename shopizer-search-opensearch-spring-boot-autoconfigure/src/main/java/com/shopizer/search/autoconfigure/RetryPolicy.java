@@ -0,0 +1,173 @@
+package com.shopizer.search.autoconfigure;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.http.conn.ConnectTimeoutException;
+
+/**
+ * Retries requests rejected by the cluster (429), unavailable (502, 503, 504)
+ * or timing out, waiting an exponential backoff with full jitter between attempts.
+ *
+ * Retries are limited by a budget per time window shared by all requests so
+ * an overloaded cluster is not flooded with retries
+ */
+class RetryPolicy {
+
+	/**
+	 * Sends one attempt of an asynchronous request
+	 */
+	@FunctionalInterface
+	interface AsyncCall<T> {
+		CompletableFuture<T> call() throws Exception;
+	}
+
+	private final SearchConfigurationProperties.Retry configuration;
+
+	private long windowStart = System.nanoTime();
+	private int windowRetries = 0;
+
+	private ScheduledExecutorService scheduler = null;
+
+	RetryPolicy(SearchConfigurationProperties.Retry configuration) {
+		Validate.notNull(configuration, "Retry configuration cannot be null");
+		this.configuration = configuration;
+	}
+
+	static boolean isRetryable(int status) {
+		return status == 429 || status == 502 || status == 503 || status == 504;
+	}
+
+	static boolean isRetryable(Throwable e) {
+		if(isRetryable(ResponseStatus.of(e))) {
+			return true;
+		}
+		for(Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if(cause instanceof SocketTimeoutException
+					|| cause instanceof ConnectTimeoutException
+					|| cause instanceof ConnectException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param attempt number of attempts already made
+	 * @return true when another attempt is allowed, consumes one retry of the budget
+	 */
+	boolean allowRetry(int attempt) {
+		if(!configuration.isEnabled() || attempt > configuration.getMaxRetries()) {
+			return false;
+		}
+		synchronized(this) {
+			long now = System.nanoTime();
+			if(now - windowStart > TimeUnit.MILLISECONDS.toNanos(configuration.getBudgetWindowInMillis())) {
+				windowStart = now;
+				windowRetries = 0;
+			}
+			if(windowRetries >= configuration.getBudget()) {
+				return false;
+			}
+			windowRetries++;
+			return true;
+		}
+	}
+
+	/**
+	 * Full jitter, random between 0 and initial * 2^(attempt - 1) capped to max backoff
+	 * @param attempt retry number starting at 1
+	 */
+	long backoffInMillis(int attempt) {
+		long ceiling = configuration.getInitialBackoffInMillis() << Math.min(attempt - 1, 30);
+		ceiling = Math.min(Math.max(ceiling, 1), configuration.getMaxBackoffInMillis());
+		return ThreadLocalRandom.current().nextLong(ceiling + 1);
+	}
+
+	/**
+	 * Runs a call, retrying retryable failures
+	 */
+	<T> T call(Callable<T> call) throws Exception {
+		for(int attempt = 1;; attempt++) {
+			try {
+				return call.call();
+			} catch (Exception e) {
+				if(!isRetryable(e) || !allowRetry(attempt)) {
+					throw e;
+				}
+				Thread.sleep(backoffInMillis(attempt));
+			}
+		}
+	}
+
+	/**
+	 * Sends an asynchronous request, retrying retryable failures after a backoff
+	 * without blocking the calling thread
+	 */
+	<T> CompletableFuture<T> callAsync(AsyncCall<T> call) {
+		CompletableFuture<T> result = new CompletableFuture<T>();
+		attempt(call, 1, result);
+		return result;
+	}
+
+	private <T> void attempt(AsyncCall<T> call, int attempt, CompletableFuture<T> result) {
+		CompletableFuture<T> future;
+		try {
+			future = call.call();
+		} catch (Exception e) {
+			future = new CompletableFuture<T>();
+			future.completeExceptionally(e);
+		}
+		future.whenComplete((response, e) -> {
+			if(e == null) {
+				result.complete(response);
+				return;
+			}
+			Throwable failure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+			if(!isRetryable(failure) || !allowRetry(attempt)) {
+				result.completeExceptionally(failure);
+				return;
+			}
+			try {
+				schedule(() -> attempt(call, attempt + 1, result), attempt);
+			} catch (RuntimeException rejected) {
+				//scheduler closed
+				result.completeExceptionally(failure);
+			}
+		});
+	}
+
+	/**
+	 * Runs a task after the backoff of a retry, used by asynchronous requests
+	 */
+	void schedule(Runnable task, int attempt) {
+		scheduler().schedule(task, backoffInMillis(attempt), TimeUnit.MILLISECONDS);
+	}
+
+	private synchronized ScheduledExecutorService scheduler() {
+		if(scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "opensearch-retry");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return scheduler;
+	}
+
+	synchronized void close() {
+		if(scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+package com.shopizer.search.autoconfigure;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.CreatePitResponse;
+import org.opensearch.action.search.DeletePitRequest;
+import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.PointInTimeBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.SortBuilders;
+import org.opensearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import modules.commons.search.request.SearchItem;
+
+/**
+ * Iterates over all documents of an index matching a query
+ * Pages are fetched with a point in time and search_after sorted by _doc
+ * so memory stays bounded by the page size whatever the size of the index.
+ * _doc values repeat across shards and indices, the unique id field breaks ties
+ * 
+ * The point in time is released on close or once the last page is read
+ */
+class ScanIterator implements Iterator<SearchItem>, Closeable {
+	
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScanIterator.class);
+	
+	private final RestHighLevelClient client;
+	private final QueryBuilder query;
+	private final String index;
+	private final String language;
+	private final int pageSize;
+	private final TimeValue keepAlive;
+	private final SearchMetrics metrics;
+	
+	private String pitId;
+	private SearchHit[] page = new SearchHit[0];
+	private int position = 0;
+	private Object[] searchAfter = null;
+	private boolean lastPage = false;
+	
+	/**
+	 * @param routing shard routing of scanned documents, null for all shards
+	 */
+	ScanIterator(RestHighLevelClient client, String[] indices, String language, String routing, QueryBuilder query, SearchConfigurationProperties.Scan configuration, SearchMetrics metrics) throws Exception {
+		this.client = client;
+		this.index = String.join(",", indices);
+		this.language = language;
+		this.query = query;
+		this.pageSize = configuration.getPageSize();
+		this.keepAlive = TimeValue.timeValueSeconds(configuration.getKeepAliveInSeconds());
+		this.metrics = metrics;
+		
+		CreatePitRequest createPitRequest = new CreatePitRequest(keepAlive, false, indices);
+		createPitRequest.setRouting(routing);
+		CreatePitResponse createPitResponse = client.createPit(createPitRequest, RequestOptions.DEFAULT);
+		this.pitId = createPitResponse.getId();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if(position < page.length) {
+			return true;
+		}
+		if(lastPage) {
+			close();
+			return false;
+		}
+		try {
+			fetch();
+		} catch (Exception e) {
+			close();
+			throw new RuntimeException("Cannot scan index [" + index + "]", e);
+		}
+		if(position < page.length) {
+			return true;
+		}
+		close();
+		return false;
+	}
+
+	@Override
+	public SearchItem next() {
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		SearchHit hit = page[position++];
+		try {
+			return SourceReader.searchItem(hit.getSourceRef());
+		} catch (Exception e) {
+			throw new RuntimeException("Cannot read document [" + hit.getId() + "] of index [" + index + "]", e);
+		}
+	}
+	
+	private void fetch() throws Exception {
+		
+		SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+				.query(query)
+				.size(pageSize)
+				.trackTotalHits(false)
+				.pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(keepAlive))
+				.sort(SortBuilders.fieldSort("_doc").order(SortOrder.ASC))
+				.sort(SortBuilders.fieldSort("id").order(SortOrder.ASC));
+		if(searchAfter != null) {
+			searchSourceBuilder.searchAfter(searchAfter);
+		}
+		
+		//indices are given by the point in time
+		org.opensearch.action.search.SearchRequest search = new org.opensearch.action.search.SearchRequest();
+		search.source(searchSourceBuilder);
+		
+		long start = System.nanoTime();
+		org.opensearch.action.search.SearchResponse response;
+		try {
+			response = client.search(search, RequestOptions.DEFAULT);
+		} catch (Exception e) {
+			int status = ResponseStatus.of(e);
+			metrics.request("scan", index, language, System.nanoTime() - start, status);
+			metrics.failure("scan", index, language, status);
+			throw e;
+		}
+		metrics.request("scan", index, language, System.nanoTime() - start, response.status().getStatus());
+		
+		if(response.pointInTimeId() != null) {
+			pitId = response.pointInTimeId();
+		}
+		
+		page = response.getHits().getHits();
+		position = 0;
+		if(page.length > 0) {
+			searchAfter = page[page.length - 1].getSortValues();
+		}
+		lastPage = page.length < pageSize;
+	}
+
+	@Override
+	public void close() {
+		if(pitId == null) {
+			return;
+		}
+		try {
+			client.deletePit(new DeletePitRequest(Collections.singletonList(pitId)), RequestOptions.DEFAULT);
+		} catch (Exception e) {
+			LOGGER.warn("Cannot delete point in time of index [{}], it will expire after its keep alive", index, e);
+		}
+		pitId = null;
+	}
+
+}
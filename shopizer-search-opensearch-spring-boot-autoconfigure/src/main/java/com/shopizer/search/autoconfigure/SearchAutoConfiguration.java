@@ -1,10 +1,13 @@
 package com.shopizer.search.autoconfigure;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @ConditionalOnClass(SearchModuleImpl.class)
 @EnableConfigurationProperties(SearchConfigurationProperties.class)
@@ -18,7 +21,7 @@ public class SearchAutoConfiguration {
     }
 
     @Bean
-    public SearchModuleImpl searchModule(){
+    public SearchModuleImpl searchModule(ObjectProvider<SearchMetrics> metrics, ObjectProvider<IndexNamingStrategy> indexNamingStrategy){
     	
     	
     	//singleton configuration that creates connectivity with server
@@ -39,7 +42,17 @@ public class SearchAutoConfiguration {
     	
     	
     	//opensearch module
-    	SearchModuleImpl module = new SearchModuleImpl();
+    	SearchModuleImpl module = new SearchModuleImpl(properties);
+    	
+    	/**
+    	 * Micrometer metrics when a MeterRegistry exists
+    	 */
+    	metrics.ifAvailable(module::setMetrics);
+    	
+    	/**
+    	 * Custom index layout
+    	 */
+    	indexNamingStrategy.ifAvailable(module::setIndexNamingStrategy);
 
     	
     	/**
@@ -61,5 +74,21 @@ public class SearchAutoConfiguration {
     	
         return module;
     }
+    
+    
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class SearchMetricsConfiguration {
+    	
+    	@Bean
+    	public SearchMetrics searchMetrics(ObjectProvider<MeterRegistry> registry, SearchConfigurationProperties properties) {
+    		MeterRegistry meterRegistry = registry.getIfAvailable();
+    		if(meterRegistry == null) {
+    			return SearchMetrics.NOOP;
+    		}
+    		return new MicrometerSearchMetrics(meterRegistry, properties.getMetrics().isPercentileHistogram());
+    	}
+    	
+    }
 
 }
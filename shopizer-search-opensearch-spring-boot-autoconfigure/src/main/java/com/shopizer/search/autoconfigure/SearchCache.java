@@ -0,0 +1,176 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Bounded in JVM cache of search results
+ * Least recently used entries are evicted above max entries, entries expire after ttl.
+ * Entries are keyed by store so writes to a store invalidate only its entries.
+ *
+ * A completed write is not visible before the next index refresh, a search in between
+ * caches results without it. Entries of the store are evicted again after the refresh delay,
+ * entries can then only be stale when a refresh takes longer than the delay, until the ttl
+ *
+ * @param <V> cached value
+ */
+class SearchCache<V> {
+
+	/**
+	 * Store and normalized request
+	 */
+	static final class Key {
+
+		private final String store;
+		private final String request;
+
+		Key(String store, String request) {
+			this.store = store == null ? null : store.toLowerCase();
+			this.request = request;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(store, request);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key)obj;
+			return Objects.equals(store, other.store) && Objects.equals(request, other.request);
+		}
+
+	}
+
+	private static final class Entry<V> {
+
+		private final V value;
+		private final long expires;
+
+		Entry(V value, long expires) {
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+
+	private final String name;
+	private final int maxEntries;
+	private final long ttlInNanos;
+	private final long refreshDelayInMillis;
+	private final SearchMetrics metrics;
+	private final LinkedHashMap<Key, Entry<V>> entries;
+
+	private ScheduledExecutorService scheduler = null;
+	private boolean closed = false;
+
+	SearchCache(String name, int maxEntries, long ttlInSeconds, long refreshDelayInMillis, SearchMetrics metrics) {
+		Validate.notNull(metrics, "SearchMetrics cannot be null");
+		Validate.isTrue(maxEntries > 0, "maxEntries must be positive");
+		this.name = name;
+		this.maxEntries = maxEntries;
+		this.ttlInNanos = TimeUnit.SECONDS.toNanos(ttlInSeconds);
+		this.refreshDelayInMillis = refreshDelayInMillis;
+		this.metrics = metrics;
+		this.entries = new LinkedHashMap<Key, Entry<V>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry<V>> eldest) {
+				return size() > SearchCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @return cached value, null when absent or expired
+	 */
+	V get(Key key) {
+		V value = null;
+		synchronized(entries) {
+			Entry<V> entry = entries.get(key);
+			if(entry != null) {
+				if(System.nanoTime() - entry.expires > 0) {
+					entries.remove(key);
+				} else {
+					value = entry.value;
+				}
+			}
+		}
+		metrics.cache(name, value != null);
+		return value;
+	}
+
+	void put(Key key, V value) {
+		synchronized(entries) {
+			entries.put(key, new Entry<V>(value, System.nanoTime() + ttlInNanos));
+		}
+	}
+
+	/**
+	 * Removes entries of a store once a write completed and again after the refresh delay,
+	 * all entries when store is null
+	 */
+	void invalidate(String store) {
+		evict(store);
+		if(refreshDelayInMillis > 0) {
+			try {
+				scheduler().schedule(() -> evict(store), refreshDelayInMillis, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				//cache closed
+			}
+		}
+	}
+
+	void evict(String store) {
+		synchronized(entries) {
+			if(store == null) {
+				entries.clear();
+				return;
+			}
+			String s = store.toLowerCase();
+			for(Iterator<Key> keys = entries.keySet().iterator(); keys.hasNext();) {
+				if(s.equals(keys.next().store)) {
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	private synchronized ScheduledExecutorService scheduler() {
+		if(closed) {
+			throw new RejectedExecutionException("Cache " + name + " is closed");
+		}
+		if(scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "opensearch-cache-" + name);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return scheduler;
+	}
+
+	synchronized void close() {
+		closed = true;
+		if(scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+}
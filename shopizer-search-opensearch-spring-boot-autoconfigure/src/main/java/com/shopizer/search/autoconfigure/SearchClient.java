@@ -7,7 +7,16 @@ import java.nio.file.Paths;
 import java.security.KeyStore;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import javax.net.ssl.SSLContext;
@@ -19,10 +28,23 @@ import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.SSLContexts;
+import org.opensearch.OpenSearchException;
+import org.opensearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.opensearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.opensearch.action.admin.indices.alias.get.GetAliasesRequest;
+import org.opensearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.opensearch.action.admin.indices.forcemerge.ForceMergeRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.action.support.master.AcknowledgedResponse;
+import org.opensearch.client.GetAliasesResponse;
 import org.opensearch.client.RequestOptions;
 import org.opensearch.client.RestClient;
 import org.opensearch.client.RestClientBuilder;
@@ -30,22 +52,52 @@ import org.opensearch.client.RestHighLevelClient;
 import org.opensearch.client.indices.CreateIndexRequest;
 import org.opensearch.client.indices.CreateIndexResponse;
 import org.opensearch.client.indices.GetIndexRequest;
+import org.opensearch.client.indices.GetIndexResponse;
+import org.opensearch.client.indices.PutComposableIndexTemplateRequest;
+import org.opensearch.client.sniff.NodesSniffer;
+import org.opensearch.client.sniff.OpenSearchNodesSniffer;
+import org.opensearch.client.sniff.SniffOnFailureListener;
+import org.opensearch.client.sniff.Sniffer;
+import org.opensearch.cluster.metadata.ComposableIndexTemplate;
+import org.opensearch.cluster.metadata.Template;
+import org.opensearch.common.compress.CompressedXContent;
+import org.opensearch.common.settings.Settings;
 import org.opensearch.common.xcontent.XContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import modules.commons.search.configuration.SearchConfiguration;
 import modules.commons.search.configuration.SearchHost;
 
 public class SearchClient {
 	
-	private final static String PRODUCTS_INDEX = "products_";
-	private final static String KEYWORDS_INDEX = "keywords_";
+	private static final Logger LOGGER = LoggerFactory.getLogger(SearchClient.class);
 	
 	private static SearchClient client = null;
 	private RestHighLevelClient searchClient = null; 
+	private final SearchConfiguration configuration;
+	private final SearchConfigurationProperties.Http http;
+	private final IndexNamingStrategy indexNamingStrategy;
+	private final RetryPolicy retryPolicy;
+	private final BulkThrottle bulkThrottle;
+	private Sniffer sniffer = null;
+	private RequestOptions largeResponseOptions = RequestOptions.DEFAULT;
+	private volatile CompletableFuture<Void> provisioning = CompletableFuture.completedFuture(null);
+	private final Object provisioningLock = new Object();
+	private List<String> provisioningLanguages;
+	private SearchConfigurationProperties.Provisioning provisioningConfiguration;
+	private int provisioningTimeoutInSeconds;
 	
-	private SearchClient(SearchConfiguration configuration) throws Exception {
+	private SearchClient(SearchConfiguration configuration, SearchConfigurationProperties properties, IndexNamingStrategy indexNamingStrategy, SearchMetrics metrics) throws Exception {
 		
 		Validate.notNull(configuration,"SearchConfiguration cannot be null");
+		Validate.notNull(properties,"SearchConfigurationProperties cannot be null");
+		Validate.notNull(indexNamingStrategy,"IndexNamingStrategy cannot be null");
+		this.configuration = configuration;
+		this.http = properties.getHttp();
+		this.indexNamingStrategy = indexNamingStrategy;
+		this.retryPolicy = new RetryPolicy(properties.getRetry());
+		this.bulkThrottle = new BulkThrottle(properties.getBulk(), properties.getAdaptiveBulk(), metrics);
 
 		
 		if(searchClient != null) {
@@ -59,77 +111,18 @@ public class SearchClient {
 				.map(h -> this.host(h))
 				.collect(Collectors.toList());
 
-        RestClientBuilder builder = RestClient
-        		.builder(hostList.toArray(new HttpHost[hostList.size()]));
+        searchClient = this.build(hostList, configuration, properties);
         
         /**
-         * spring boot issue documented here
-         * https://github.com/elastic/elasticsearch/issues/59261
+         * Gzip compression
+         * request bodies are compressed by the client, large responses (product listing, documents)
+         * are requested gzip encoded. Small responses such as autocomplete stay uncompressed
          */
-        builder.setHttpClientConfigCallback(httpAsyncClientBuilder -> httpAsyncClientBuilder.setKeepAliveStrategy((response, context) -> 3600000/* 1hour */));
-
-        
-        if(configuration.getCredentials()!=null) {
-
-				final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-				credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(configuration.getCredentials().getUserName(), configuration.getCredentials().getPassword()));
-			
-	        
-		        builder.setHttpClientConfigCallback(new RestClientBuilder.HttpClientConfigCallback() {
-		        	  
-			              public HttpAsyncClientBuilder customizeHttpClient(
-			            		  
-			            		  
-			            	  //with or without ssl
-			            	  		  
-			                  final HttpAsyncClientBuilder httpAsyncClientBuilder) {
-			            	  
-			            	    httpAsyncClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
-			            	  	try {
-			                    
-			                      
-			          			/** only if a test certificate is used **/
-			            	  		
-			            		/**
-			            		* To be able to connect to the node you should have a valid or root certificate on opensearch
-			            		* Docker version uses a self signed certificate and required the use of a java jks that has open search certificate
-			            		* a test jks working with OS decker version can be downloaded here https://github.com/opensearch-project/OpenSearch/tree/main/client/rest-high-level
-			            		*/				            	  		
-			          			if(!StringUtils.isBlank(configuration.getJksAbsolutePath())) {
-			          		
-
-			          		        Path trustStorePath = Paths.get(configuration.getJksAbsolutePath());
-			          		        KeyStore truststore = KeyStore.getInstance("jks");
-			          		        try (InputStream is = Files.newInputStream(trustStorePath)) {
-			          		            truststore.load(is, "instaclustr".toCharArray());
-			          		        } catch (CertificateException e) {
-			          		            e.printStackTrace();
-			          		        }
-			          		        SSLContextBuilder sslBuilder = SSLContexts.custom().loadTrustMaterial(truststore, null);
-			          		        final SSLContext sslContext = sslBuilder.build();
-			          		        
-			          		        httpAsyncClientBuilder.setSSLContext(sslContext);
-
-			          			
-			          			}
-			                      
-			                      
-			                     
-			            	  	} catch(Exception e) {
-			            	  		throw new RuntimeException(e);
-			            	  	}
-			            	  	
-			            	  	 return httpAsyncClientBuilder;
-
-			                  }
-			          	}
-		          
-		        );
-	        
-        
+        if(properties.getCompression().isEnabled()) {
+        	largeResponseOptions = RequestOptions.DEFAULT.toBuilder()
+        			.addHeader("Accept-Encoding", "gzip")
+        			.build();
         }
- 
-        searchClient = new RestHighLevelClient(builder);
 
 
         List<String> languages = configuration.getLanguages();
@@ -142,80 +135,469 @@ public class SearchClient {
         
         final List<String> indexLanguages = new ArrayList<String>(languages);
         
-        /**
-         * check if index already exist
-         */
-
-        
         /**
          * Create indexes
+         * existing indices are listed with a single request, missing ones are created in parallel.
+         * When deferred the application starts without waiting for the cluster
          */
-        
-        indexLanguages.stream().forEach(l -> {
-			try {
-				this.createIndex(PRODUCTS_INDEX, configuration.getProductMappings().get(l), configuration.getSettings().get(l), false, l);
-			} catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		});
-        indexLanguages.stream().forEach(l -> {
-			try {
-				this.createIndex(KEYWORDS_INDEX, configuration.getKeywordsMappings().get(l), configuration.getSettings().get(l),true, l);
-			} catch (Exception e) {
-				throw new RuntimeException(e);
-			}
-		});
+        SearchConfigurationProperties.Provisioning provisioning = properties.getProvisioning();
+        provisioningLanguages = indexLanguages;
+        provisioningConfiguration = provisioning;
+        provisioningTimeoutInSeconds = provisioning.getTimeoutInSeconds();
+        this.provisioning = this.provision(indexLanguages, provisioning);
+        if(!provisioning.isDeferred()) {
+        	this.awaitProvisioning();
+        }
         
 		
 	} 
 	
-	protected static SearchClient getInstance(SearchConfiguration config) throws Exception {
+	protected static SearchClient getInstance(SearchConfiguration config, SearchConfigurationProperties properties, IndexNamingStrategy indexNamingStrategy, SearchMetrics metrics) throws Exception {
 		if(client == null) {
-			client = new SearchClient( config);
+			client = new SearchClient( config, properties, indexNamingStrategy, metrics);
 		}
 		
 		return client;
 	}
 	
 	
+	private RestHighLevelClient build(List<HttpHost> hostList, SearchConfiguration configuration, SearchConfigurationProperties properties) {
+		
+        RestClientBuilder builder = RestClient
+        		.builder(hostList.toArray(new HttpHost[hostList.size()]));
+        
+        final SearchConfigurationProperties.Http http = properties.getHttp();
+        
+        builder.setRequestConfigCallback(requestConfigBuilder -> requestConfigBuilder
+        		.setConnectTimeout(http.getConnectTimeoutInMillis())
+        		.setSocketTimeout(http.getSocketTimeoutInMillis())
+        		.setConnectionRequestTimeout(http.getConnectionRequestTimeoutInMillis()));
+        
+        /**
+         * A single callback configures the http client
+         * the rest client builder keeps only the last callback set
+         */
+        builder.setHttpClientConfigCallback(httpAsyncClientBuilder -> this.customizeHttpClient(httpAsyncClientBuilder, configuration, http));
+        
+        builder.setCompressionEnabled(properties.getCompression().isEnabled());
+        
+        /**
+         * Nodes discovery, a failing node triggers a sniff round
+         */
+        SniffOnFailureListener sniffOnFailureListener = null;
+        if(properties.getSniffer().isEnabled()) {
+        	sniffOnFailureListener = new SniffOnFailureListener();
+        	builder.setFailureListener(sniffOnFailureListener);
+        }
+ 
+        RestHighLevelClient restHighLevelClient = new RestHighLevelClient(builder);
+        
+        if(sniffOnFailureListener != null) {
+        	sniffer = this.sniffer(restHighLevelClient.getLowLevelClient(), hostList, properties.getSniffer());
+        	sniffOnFailureListener.setSniffer(sniffer);
+        }
+        
+        return restHighLevelClient;
+	}
+	
+	private HttpAsyncClientBuilder customizeHttpClient(final HttpAsyncClientBuilder httpAsyncClientBuilder, SearchConfiguration configuration, SearchConfigurationProperties.Http http) {
+		
+        /**
+         * spring boot issue documented here
+         * https://github.com/elastic/elasticsearch/issues/59261
+         */
+		httpAsyncClientBuilder.setKeepAliveStrategy((response, context) -> http.getKeepAliveInMillis());
+		
+		httpAsyncClientBuilder.setMaxConnTotal(http.getMaxConnTotal());
+		httpAsyncClientBuilder.setMaxConnPerRoute(http.getMaxConnPerRoute());
+		
+		if(http.getIoThreadCount() > 0) {
+			httpAsyncClientBuilder.setDefaultIOReactorConfig(IOReactorConfig.custom()
+					.setIoThreadCount(http.getIoThreadCount())
+					.build());
+		}
+		
+		if(configuration.getCredentials() == null) {
+			return httpAsyncClientBuilder;
+		}
+		
+		final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+		credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(configuration.getCredentials().getUserName(), configuration.getCredentials().getPassword()));
+	  
+		//with or without ssl
+	    httpAsyncClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+	  	try {
+            
+  			/** only if a test certificate is used **/
+    	  		
+    		/**
+    		* To be able to connect to the node you should have a valid or root certificate on opensearch
+    		* Docker version uses a self signed certificate and required the use of a java jks that has open search certificate
+    		* a test jks working with OS decker version can be downloaded here https://github.com/opensearch-project/OpenSearch/tree/main/client/rest-high-level
+    		*/				            	  		
+  			if(!StringUtils.isBlank(configuration.getJksAbsolutePath())) {
+  		
+
+  		        Path trustStorePath = Paths.get(configuration.getJksAbsolutePath());
+  		        KeyStore truststore = KeyStore.getInstance("jks");
+  		        try (InputStream is = Files.newInputStream(trustStorePath)) {
+  		            truststore.load(is, "instaclustr".toCharArray());
+  		        } catch (CertificateException e) {
+  		            e.printStackTrace();
+  		        }
+  		        SSLContextBuilder sslBuilder = SSLContexts.custom().loadTrustMaterial(truststore, null);
+  		        final SSLContext sslContext = sslBuilder.build();
+  		        
+  		        httpAsyncClientBuilder.setSSLContext(sslContext);
+
+  			
+  			}
+             
+	  	} catch(Exception e) {
+	  		throw new RuntimeException(e);
+	  	}
+	  	
+	  	return httpAsyncClientBuilder;
+		
+	}
+	
+	
+	private Sniffer sniffer(RestClient restClient, List<HttpHost> hosts, SearchConfigurationProperties.Sniffer configuration) {
+		
+		//discovered nodes use the scheme of configured hosts
+		OpenSearchNodesSniffer.Scheme scheme = "https".equalsIgnoreCase(hosts.get(0).getSchemeName()) ? 
+				OpenSearchNodesSniffer.Scheme.HTTPS : OpenSearchNodesSniffer.Scheme.HTTP;
+		
+		NodesSniffer nodesSniffer = new OpenSearchNodesSniffer(
+				restClient, 
+				OpenSearchNodesSniffer.DEFAULT_SNIFF_REQUEST_TIMEOUT, 
+				scheme);
+		
+		return Sniffer.builder(restClient)
+				.setNodesSniffer(nodesSniffer)
+				.setSniffIntervalMillis(configuration.getIntervalInMillis())
+				.setSniffAfterFailureDelayMillis(configuration.getDelayAfterFailureInMillis())
+				.build();
+	}
+	
+	
 	private HttpHost host(SearchHost host) {
 		return new HttpHost(host.getHost(),host.getPort(),host.getScheme());
 	}
 
 	
-	private void createIndex(String indexPrefix, String mappings, String settings, boolean hasMappings, String language) throws Exception {
-		StringBuilder indexBuilder = new StringBuilder();
-		indexBuilder.append(indexPrefix).append(language.toLowerCase());
-		CreateIndexRequest createIndexRequest = new CreateIndexRequest(indexBuilder.toString());
+	private CompletableFuture<Void> provision(List<String> languages, SearchConfigurationProperties.Provisioning provisioning) throws Exception {
 		
-		//test if index exists
-		GetIndexRequest request = new GetIndexRequest(indexBuilder.toString());
-		boolean exists = searchClient.indices().exists(request, RequestOptions.DEFAULT);
-		if(exists) {
-			return;
+		if(!provisioning.isEnabled()) {
+			return CompletableFuture.completedFuture(null);
 		}
 		
-
-		createIndexRequest.settings(
-		        settings
-		        , XContentType.JSON);
-        
-
+		//indices of the layout, only those created at startup are looked up
+		List<String> names = new ArrayList<String>();
+		for(String l : languages) {
+			for(String prefix : new String[] {IndexNamingStrategy.PRODUCTS, IndexNamingStrategy.KEYWORDS}) {
+				names.addAll(indexNamingStrategy.provisionedIndices(prefix, l.toLowerCase()));
+			}
+		}
+		
+		CompletableFuture<Set<String>> existing = CompletableFuture.completedFuture(Collections.emptySet());
+		if(!names.isEmpty()) {
+			//missing indices are ignored, ignoring closed indices would try to create them again
+			GetIndexRequest request = new GetIndexRequest(names.toArray(new String[names.size()]));
+			request.indicesOptions(IndicesOptions.fromOptions(true, true, true, true));
+			
+			FutureActionListener<GetIndexResponse, Set<String>> listener = new FutureActionListener<GetIndexResponse, Set<String>>(this::existingIndices);
+			searchClient.indices().getAsync(request, RequestOptions.DEFAULT, listener);
+			existing = listener.future();
+		}
+		
+		CompletableFuture<Void> future = existing.thenCompose(indices -> {
+			List<CompletableFuture<String>> creates = new ArrayList<CompletableFuture<String>>();
+			for(String l : languages) {
+				String language = l.toLowerCase();
+				String settings = configuration.getSettings().get(l);
+				for(String prefix : new String[] {IndexNamingStrategy.PRODUCTS, IndexNamingStrategy.KEYWORDS}) {
+					String mappings = IndexNamingStrategy.PRODUCTS.equals(prefix) ? configuration.getProductMappings().get(l) : configuration.getKeywordsMappings().get(l);
+					for(String index : indexNamingStrategy.provisionedIndices(prefix, language)) {
+						if(!indices.contains(index)) {
+							creates.add(this.createIndex(index, mappings, settings));
+						}
+					}
+					//indices created on first write get mappings from a template
+					for(String pattern : indexNamingStrategy.templatePatterns(prefix, language)) {
+						creates.add(this.putTemplate(pattern, mappings, configuredSettings(l)));
+					}
+				}
+			}
+			return CompletableFuture.allOf(creates.toArray(new CompletableFuture<?>[creates.size()]));
+		});
+		
+		if(provisioning.isDeferred()) {
+			future.whenComplete((r, e) -> {
+				if(e != null) {
+					LOGGER.error("Indices provisioning failed", e);
+				}
+			});
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * Index names and aliases (indices built by reindex)
+	 */
+	private Set<String> existingIndices(GetIndexResponse response) {
+		Set<String> indices = new HashSet<String>(Arrays.asList(response.getIndices()));
+		response.getAliases().values().forEach(aliases -> aliases.forEach(alias -> indices.add(alias.alias())));
+		return indices;
+	}
+	
+	private CompletableFuture<String> createIndex(String index, String mappings, String settings) {
+		
+		CreateIndexRequest createIndexRequest = new CreateIndexRequest(index);
+		createIndexRequest.settings(settings, XContentType.JSON);
 		createIndexRequest.mapping(mappings, XContentType.JSON);
 		
-		System.out.println(mappings);
-        
-        CreateIndexResponse createIndexResponse = searchClient.indices().create(createIndexRequest, RequestOptions.DEFAULT);
-        System.out.println("Creating index: " + indexBuilder.toString());
-        System.out.println("Is client acknowledged?" + ((createIndexResponse.isAcknowledged())? " Yes" : " No"));
- 
-        
+		LOGGER.debug("Index [{}] mappings {}", index, mappings);
+		
+		FutureActionListener<CreateIndexResponse, String> listener = new FutureActionListener<CreateIndexResponse, String>(response -> {
+			LOGGER.info("Creating index [{}] acknowledged [{}]", index, response.isAcknowledged());
+			return index;
+		});
+		searchClient.indices().createAsync(createIndexRequest, RequestOptions.DEFAULT, listener);
+		
+		//another instance starting at the same time may have created it
+		return listener.future().handle((created, e) -> {
+			if(e == null) {
+				return created;
+			}
+			Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+			if(cause instanceof OpenSearchException
+					&& String.valueOf(cause.getMessage()).contains("resource_already_exists_exception")) {
+				return index;
+			}
+			throw new CompletionException(cause);
+		});
+	}
+	
+	private CompletableFuture<String> putTemplate(String pattern, String mappings, Settings settings) {
+		
+		final String name = pattern.replace("*", "store");
+		
+		FutureActionListener<AcknowledgedResponse, String> listener = new FutureActionListener<AcknowledgedResponse, String>(response -> {
+			LOGGER.info("Index template [{}] for [{}] acknowledged [{}]", name, pattern, response.isAcknowledged());
+			return name;
+		});
+		
+		try {
+			Template template = new Template(settings, new CompressedXContent(mappings), null);
+			PutComposableIndexTemplateRequest request = new PutComposableIndexTemplateRequest()
+					.name(name)
+					.indexTemplate(new ComposableIndexTemplate(Collections.singletonList(pattern), template, null, null, null, null));
+			searchClient.indices().putIndexTemplateAsync(request, RequestOptions.DEFAULT, listener);
+		} catch (Exception e) {
+			listener.onFailure(e);
+		}
+		
+		return listener.future();
+	}
+	
+	/**
+	 * Waits for indices creation, returns immediately once provisioned
+	 * A failed provisioning (cluster not ready when deferred at startup) is started again
+	 */
+	protected void awaitProvisioning() throws Exception {
+		CompletableFuture<Void> current = provisioning;
+		if(current.isDone() && !current.isCompletedExceptionally()) {
+			return;
+		}
+		synchronized(provisioningLock) {
+			if(provisioning.isCompletedExceptionally()) {
+				LOGGER.info("Retrying indices provisioning");
+				provisioning = this.provision(provisioningLanguages, provisioningConfiguration);
+			}
+			current = provisioning;
+		}
+		try {
+			current.get(provisioningTimeoutInSeconds, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			throw new Exception("Indices provisioning failed", e.getCause());
+		} catch (TimeoutException e) {
+			throw new Exception("Indices provisioning did not complete within [" + provisioningTimeoutInSeconds + "] seconds");
+		}
 	}
 	
 	protected RestHighLevelClient getClient() throws Exception {
 		
 		return searchClient;
 	}
+	
+	protected RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+	
+	protected BulkThrottle getBulkThrottle() {
+		return bulkThrottle;
+	}
+	
+	
+	/**
+	 * Reindex support
+	 * 
+	 * A versioned index (products_en_20221201120000) is created with configured mappings and settings
+	 * tuned for bulk loading, once loaded the configured settings are restored and the
+	 * alias (products_en) is moved atomically from the previous index to the new one
+	 */
+	
+	private final static String REFRESH_INTERVAL = "index.refresh_interval";
+	private final static String NUMBER_OF_REPLICAS = "index.number_of_replicas";
+	
+	/**
+	 * Creates a versioned index without refresh and replicas
+	 * @return name of the created index
+	 */
+	protected String createVersionedIndex(String alias, String mappings, String language, String version) throws Exception {
+		
+		String index = new StringBuilder().append(alias).append("_").append(version).toString();
+		
+		Settings settings = Settings.builder()
+				.put(configuredSettings(language))
+				.put(REFRESH_INTERVAL, "-1")
+				.put(NUMBER_OF_REPLICAS, 0)
+				.build();
+		
+		CreateIndexRequest createIndexRequest = new CreateIndexRequest(index);
+		createIndexRequest.settings(settings);
+		createIndexRequest.mapping(mappings, XContentType.JSON);
+		
+		CreateIndexResponse createIndexResponse = searchClient.indices().create(createIndexRequest, RequestOptions.DEFAULT);
+		LOGGER.info("Creating index [{}] for reindex acknowledged [{}]", index, createIndexResponse.isAcknowledged());
+		
+		return index;
+	}
+	
+	/**
+	 * Restores refresh interval and replicas from configured settings, then refreshes
+	 * and optionally force merges the index
+	 * @param forceMergeTimeoutInSeconds socket timeout of the force merge request, 0 waits without timeout
+	 */
+	protected void restoreIndexSettings(String index, String language, boolean forceMerge, int maxNumSegments, int forceMergeTimeoutInSeconds) throws Exception {
+		
+		Settings configured = configuredSettings(language);
+		
+		Settings.Builder restore = Settings.builder();
+		restore(restore, configured, REFRESH_INTERVAL);
+		restore(restore, configured, NUMBER_OF_REPLICAS);
+		
+		UpdateSettingsRequest updateSettingsRequest = new UpdateSettingsRequest(index);
+		updateSettingsRequest.settings(restore);
+		searchClient.indices().putSettings(updateSettingsRequest, RequestOptions.DEFAULT);
+		
+		searchClient.indices().refresh(new RefreshRequest(index), RequestOptions.DEFAULT);
+		
+		if(forceMerge) {
+			ForceMergeRequest forceMergeRequest = new ForceMergeRequest(index);
+			forceMergeRequest.maxNumSegments(maxNumSegments);
+			
+			//the response is sent once segments are merged, far beyond the socket timeout of other requests
+			RequestConfig requestConfig = RequestConfig.custom()
+					.setConnectTimeout(http.getConnectTimeoutInMillis())
+					.setConnectionRequestTimeout(http.getConnectionRequestTimeoutInMillis())
+					.setSocketTimeout(Math.toIntExact(TimeUnit.SECONDS.toMillis(forceMergeTimeoutInSeconds)))
+					.build();
+			searchClient.indices().forcemerge(forceMergeRequest, RequestOptions.DEFAULT.toBuilder().setRequestConfig(requestConfig).build());
+		}
+	}
+	
+	/**
+	 * Points alias to index in a single aliases request
+	 * A concrete index having the alias name (created before aliases were used) is removed in the same request
+	 * @return indices the alias was pointing to
+	 */
+	protected List<String> swapAlias(String alias, String index) throws Exception {
+		
+		GetAliasesResponse aliases = searchClient.indices().getAlias(new GetAliasesRequest(alias), RequestOptions.DEFAULT);
+		List<String> previous = new ArrayList<String>(aliases.getAliases().keySet());
+		
+		IndicesAliasesRequest request = new IndicesAliasesRequest();
+		for(String old : previous) {
+			request.addAliasAction(AliasActions.remove().index(old).alias(alias));
+		}
+		
+		if(previous.isEmpty() && searchClient.indices().exists(new GetIndexRequest(alias), RequestOptions.DEFAULT)) {
+			LOGGER.info("Index [{}] is replaced by alias to [{}]", alias, index);
+			request.addAliasAction(AliasActions.removeIndex().index(alias));
+		}
+		
+		request.addAliasAction(AliasActions.add().index(index).alias(alias));
+		searchClient.indices().updateAliases(request, RequestOptions.DEFAULT);
+		LOGGER.info("Alias [{}] now points to [{}]", alias, index);
+		
+		return previous;
+	}
+	
+	protected void refresh(List<String> indices) throws Exception {
+		if(CollectionUtils.isEmpty(indices)) {
+			return;
+		}
+		searchClient.indices().refresh(new RefreshRequest(indices.toArray(new String[indices.size()])), RequestOptions.DEFAULT);
+	}
+
+	protected void deleteIndices(List<String> indices) throws Exception {
+		if(CollectionUtils.isEmpty(indices)) {
+			return;
+		}
+		searchClient.indices().delete(new DeleteIndexRequest(indices.toArray(new String[indices.size()])), RequestOptions.DEFAULT);
+	}
+	
+	protected String getProductMappings(String language) {
+		return configuration.getProductMappings().get(language);
+	}
+	
+	protected String getKeywordsMappings(String language) {
+		return configuration.getKeywordsMappings().get(language);
+	}
+	
+	private Settings configuredSettings(String language) {
+		String settings = configuration.getSettings().get(language);
+		if(StringUtils.isBlank(settings)) {
+			return Settings.EMPTY;
+		}
+		return Settings.builder().loadFromSource(settings, XContentType.JSON).build();
+	}
+	
+	private void restore(Settings.Builder restore, Settings configured, String key) {
+		//settings files may omit the index. prefix
+		String value = configured.get(key, configured.get(key.substring("index.".length())));
+		if(value == null) {
+			restore.putNull(key);
+		} else {
+			restore.put(key, value);
+		}
+	}
+	
+	/**
+	 * Request options for requests returning large responses
+	 * asks for gzip encoded responses when compression is enabled
+	 */
+	protected RequestOptions getLargeResponseOptions() {
+		return largeResponseOptions;
+	}
+	
+	/**
+	 * Stops nodes discovery and closes the client
+	 */
+	protected static synchronized void close() throws Exception {
+		if(client == null) {
+			return;
+		}
+		if(client.sniffer != null) {
+			client.sniffer.close();
+		}
+		client.retryPolicy.close();
+		client.searchClient.close();
+		client = null;
+	}
 
     
 
@@ -1,5 +1,10 @@
 package com.shopizer.search.autoconfigure;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties("search.opensearch")
@@ -48,6 +53,1256 @@ public class SearchConfigurationProperties {
 	 * 
 	 * }
 	 */
+	
+	
+	/**
+	 * Bulk indexing configuration
+	 * search.opensearch.bulk.*
+	 */
+	private Bulk bulk = new Bulk();
+	
+	
+	public Bulk getBulk() {
+		return bulk;
+	}
+
+
+	public void setBulk(Bulk bulk) {
+		this.bulk = bulk;
+	}
+	
+	
+	public static class Bulk {
+		
+		/**
+		 * Maximum number of actions (index / delete) sent in a single _bulk request
+		 */
+		private int maxActions = 1000;
+		
+		/**
+		 * Maximum estimated size of a single _bulk request
+		 */
+		private long maxSizeInBytes = 5 * 1024 * 1024;
+		
+		/**
+		 * Number of _bulk requests allowed in flight at the same time
+		 */
+		private int concurrentRequests = 2;
+		
+		/**
+		 * Maximum time to wait for in flight _bulk requests to complete
+		 */
+		private long timeoutInSeconds = 120;
+
+		public int getMaxActions() {
+			return maxActions;
+		}
+
+		public void setMaxActions(int maxActions) {
+			this.maxActions = maxActions;
+		}
+
+		public long getMaxSizeInBytes() {
+			return maxSizeInBytes;
+		}
+
+		public void setMaxSizeInBytes(long maxSizeInBytes) {
+			this.maxSizeInBytes = maxSizeInBytes;
+		}
+
+		public int getConcurrentRequests() {
+			return concurrentRequests;
+		}
+
+		public void setConcurrentRequests(int concurrentRequests) {
+			this.concurrentRequests = concurrentRequests;
+		}
+
+		public long getTimeoutInSeconds() {
+			return timeoutInSeconds;
+		}
+
+		public void setTimeoutInSeconds(long timeoutInSeconds) {
+			this.timeoutInSeconds = timeoutInSeconds;
+		}
+		
+	}
+	
+	/**
+	 * Http client connection pool, io reactor and timeouts
+	 * search.opensearch.http.*
+	 */
+	private Http http = new Http();
+	
+	
+	public Http getHttp() {
+		return http;
+	}
+
+
+	public void setHttp(Http http) {
+		this.http = http;
+	}
+	
+	
+	public static class Http {
+		
+		/**
+		 * Maximum number of connections in the pool
+		 */
+		private int maxConnTotal = 100;
+		
+		/**
+		 * Maximum number of connections per node
+		 */
+		private int maxConnPerRoute = 50;
+		
+		/**
+		 * Number of io reactor threads, 0 uses the http client default (number of processors)
+		 */
+		private int ioThreadCount = 0;
+		
+		/**
+		 * Timeout for establishing a connection
+		 */
+		private int connectTimeoutInMillis = 1000;
+		
+		/**
+		 * Timeout waiting for data on an open connection
+		 */
+		private int socketTimeoutInMillis = 30000;
+		
+		/**
+		 * Timeout waiting for a connection from the pool, -1 waits indefinitely
+		 */
+		private int connectionRequestTimeoutInMillis = -1;
+		
+		/**
+		 * Keep alive of idle connections, default 1 hour
+		 */
+		private long keepAliveInMillis = 3600000;
+
+		public int getMaxConnTotal() {
+			return maxConnTotal;
+		}
+
+		public void setMaxConnTotal(int maxConnTotal) {
+			this.maxConnTotal = maxConnTotal;
+		}
+
+		public int getMaxConnPerRoute() {
+			return maxConnPerRoute;
+		}
+
+		public void setMaxConnPerRoute(int maxConnPerRoute) {
+			this.maxConnPerRoute = maxConnPerRoute;
+		}
+
+		public int getIoThreadCount() {
+			return ioThreadCount;
+		}
+
+		public void setIoThreadCount(int ioThreadCount) {
+			this.ioThreadCount = ioThreadCount;
+		}
+
+		public int getConnectTimeoutInMillis() {
+			return connectTimeoutInMillis;
+		}
+
+		public void setConnectTimeoutInMillis(int connectTimeoutInMillis) {
+			this.connectTimeoutInMillis = connectTimeoutInMillis;
+		}
+
+		public int getSocketTimeoutInMillis() {
+			return socketTimeoutInMillis;
+		}
+
+		public void setSocketTimeoutInMillis(int socketTimeoutInMillis) {
+			this.socketTimeoutInMillis = socketTimeoutInMillis;
+		}
+
+		public int getConnectionRequestTimeoutInMillis() {
+			return connectionRequestTimeoutInMillis;
+		}
+
+		public void setConnectionRequestTimeoutInMillis(int connectionRequestTimeoutInMillis) {
+			this.connectionRequestTimeoutInMillis = connectionRequestTimeoutInMillis;
+		}
+
+		public long getKeepAliveInMillis() {
+			return keepAliveInMillis;
+		}
+
+		public void setKeepAliveInMillis(long keepAliveInMillis) {
+			this.keepAliveInMillis = keepAliveInMillis;
+		}
+		
+	}
+	
+	/**
+	 * Cluster nodes discovery
+	 * search.opensearch.sniffer.*
+	 */
+	private Sniffer sniffer = new Sniffer();
+	
+	
+	public Sniffer getSniffer() {
+		return sniffer;
+	}
+
+
+	public void setSniffer(Sniffer sniffer) {
+		this.sniffer = sniffer;
+	}
+	
+	
+	public static class Sniffer {
+		
+		/**
+		 * Discover cluster nodes and balance requests across all of them
+		 */
+		private boolean enabled = false;
+		
+		/**
+		 * Interval between two sniff rounds
+		 */
+		private int intervalInMillis = 300000;
+		
+		/**
+		 * Sniff delay scheduled after a node failure
+		 */
+		private int delayAfterFailureInMillis = 60000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getIntervalInMillis() {
+			return intervalInMillis;
+		}
+
+		public void setIntervalInMillis(int intervalInMillis) {
+			this.intervalInMillis = intervalInMillis;
+		}
+
+		public int getDelayAfterFailureInMillis() {
+			return delayAfterFailureInMillis;
+		}
+
+		public void setDelayAfterFailureInMillis(int delayAfterFailureInMillis) {
+			this.delayAfterFailureInMillis = delayAfterFailureInMillis;
+		}
+		
+	}
+	
+	/**
+	 * Gzip compression of requests and large responses
+	 * search.opensearch.compression.*
+	 */
+	private Compression compression = new Compression();
+	
+	
+	public Compression getCompression() {
+		return compression;
+	}
+
+
+	public void setCompression(Compression compression) {
+		this.compression = compression;
+	}
+	
+	
+	public static class Compression {
+		
+		/**
+		 * Compress request bodies and accept gzip encoded search responses
+		 */
+		private boolean enabled = false;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+	}
+	
+	/**
+	 * Full index scan with point in time and search_after
+	 * search.opensearch.scan.*
+	 */
+	private Scan scan = new Scan();
+	
+	
+	public Scan getScan() {
+		return scan;
+	}
+
+
+	public void setScan(Scan scan) {
+		this.scan = scan;
+	}
+	
+	
+	public static class Scan {
+		
+		/**
+		 * Number of hits fetched per page
+		 */
+		private int pageSize = 1000;
+		
+		/**
+		 * Point in time keep alive between two pages
+		 */
+		private long keepAliveInSeconds = 120;
+
+		public int getPageSize() {
+			return pageSize;
+		}
+
+		public void setPageSize(int pageSize) {
+			this.pageSize = pageSize;
+		}
+
+		public long getKeepAliveInSeconds() {
+			return keepAliveInSeconds;
+		}
+
+		public void setKeepAliveInSeconds(long keepAliveInSeconds) {
+			this.keepAliveInSeconds = keepAliveInSeconds;
+		}
+		
+	}
+	
+	/**
+	 * Products search pagination and total hits counting
+	 * search.opensearch.search.*
+	 */
+	private Search search = new Search();
+	
+	
+	public Search getSearch() {
+		return search;
+	}
+
+
+	public void setSearch(Search search) {
+		this.search = search;
+	}
+	
+	
+	public enum TotalHitsMode {
+		EXACT, CAPPED, DISABLED
+	}
+	
+	
+	public enum IndexLayoutType {
+		SHARED, PER_STORE, HYBRID
+	}
+	
+	
+	public static class Search {
+		
+		/**
+		 * Number of products returned when the caller does not ask for a page size
+		 */
+		private int pageSize = 10;
+		
+		/**
+		 * Total hits counting, exact, capped at totalHitsThreshold or disabled
+		 * Capped counts stop at totalHitsThreshold, products search responses have a count of -1 when disabled
+		 */
+		private TotalHitsMode totalHits = TotalHitsMode.CAPPED;
+		
+		/**
+		 * Total hits are counted accurately up to this value in capped mode
+		 */
+		private int totalHitsThreshold = 10000;
+		
+		/**
+		 * Named _source projections
+		 */
+		private Map<String, SourceProjection> projections = new HashMap<String, SourceProjection>();
+		
+		/**
+		 * Projection applied to products search when none is given, full _source when not set
+		 */
+		private String productsProjection;
+		
+		/**
+		 * Projection applied to keywords search when none is given, full _source when not set
+		 */
+		private String keywordsProjection;
+
+		public int getPageSize() {
+			return pageSize;
+		}
+
+		public void setPageSize(int pageSize) {
+			this.pageSize = pageSize;
+		}
+
+		public TotalHitsMode getTotalHits() {
+			return totalHits;
+		}
+
+		public void setTotalHits(TotalHitsMode totalHits) {
+			this.totalHits = totalHits;
+		}
+
+		public int getTotalHitsThreshold() {
+			return totalHitsThreshold;
+		}
+
+		public void setTotalHitsThreshold(int totalHitsThreshold) {
+			this.totalHitsThreshold = totalHitsThreshold;
+		}
+
+		public Map<String, SourceProjection> getProjections() {
+			return projections;
+		}
+
+		public void setProjections(Map<String, SourceProjection> projections) {
+			this.projections = projections;
+		}
+
+		public String getProductsProjection() {
+			return productsProjection;
+		}
+
+		public void setProductsProjection(String productsProjection) {
+			this.productsProjection = productsProjection;
+		}
+
+		public String getKeywordsProjection() {
+			return keywordsProjection;
+		}
+
+		public void setKeywordsProjection(String keywordsProjection) {
+			this.keywordsProjection = keywordsProjection;
+		}
+		
+	}
+	
+	/**
+	 * Zero downtime full reindex behind aliases
+	 * search.opensearch.reindex.*
+	 */
+	private Reindex reindex = new Reindex();
+	
+	
+	public Reindex getReindex() {
+		return reindex;
+	}
+
+
+	public void setReindex(Reindex reindex) {
+		this.reindex = reindex;
+	}
+	
+	
+	public static class Reindex {
+		
+		/**
+		 * force merge new indices before the alias swap
+		 */
+		private boolean forceMerge = true;
+		
+		/**
+		 * segments to merge to when force merge is enabled
+		 */
+		private int maxNumSegments = 1;
+		
+		/**
+		 * socket timeout of the force merge request, 0 waits without timeout
+		 */
+		private int forceMergeTimeoutInSeconds = 3600;
+		
+		/**
+		 * delete indices the aliases pointed to after the swap
+		 */
+		private boolean deleteOldIndices = true;
+		
+		/**
+		 * failed documents tolerated before the reindex is abandoned
+		 */
+		private int maxFailures = 0;
+
+		public boolean isForceMerge() {
+			return forceMerge;
+		}
+
+		public void setForceMerge(boolean forceMerge) {
+			this.forceMerge = forceMerge;
+		}
+
+		public int getMaxNumSegments() {
+			return maxNumSegments;
+		}
+
+		public void setMaxNumSegments(int maxNumSegments) {
+			this.maxNumSegments = maxNumSegments;
+		}
+
+		public int getForceMergeTimeoutInSeconds() {
+			return forceMergeTimeoutInSeconds;
+		}
+
+		public void setForceMergeTimeoutInSeconds(int forceMergeTimeoutInSeconds) {
+			this.forceMergeTimeoutInSeconds = forceMergeTimeoutInSeconds;
+		}
+
+		public boolean isDeleteOldIndices() {
+			return deleteOldIndices;
+		}
+
+		public void setDeleteOldIndices(boolean deleteOldIndices) {
+			this.deleteOldIndices = deleteOldIndices;
+		}
+
+		public int getMaxFailures() {
+			return maxFailures;
+		}
+
+		public void setMaxFailures(int maxFailures) {
+			this.maxFailures = maxFailures;
+		}
+		
+	}
+	
+	/**
+	 * Creation of missing indices at startup
+	 * search.opensearch.provisioning.*
+	 */
+	private Provisioning provisioning = new Provisioning();
+	
+	
+	public Provisioning getProvisioning() {
+		return provisioning;
+	}
+
+
+	public void setProvisioning(Provisioning provisioning) {
+		this.provisioning = provisioning;
+	}
+	
+	
+	public static class Provisioning {
+		
+		/**
+		 * create missing products and keywords indices when the module is configured
+		 */
+		private boolean enabled = true;
+		
+		/**
+		 * provision in background, the application starts without waiting for the cluster
+		 */
+		private boolean deferred = false;
+		
+		/**
+		 * time startup and first writes wait for provisioning
+		 */
+		private int timeoutInSeconds = 60;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public boolean isDeferred() {
+			return deferred;
+		}
+
+		public void setDeferred(boolean deferred) {
+			this.deferred = deferred;
+		}
+
+		public int getTimeoutInSeconds() {
+			return timeoutInSeconds;
+		}
+
+		public void setTimeoutInSeconds(int timeoutInSeconds) {
+			this.timeoutInSeconds = timeoutInSeconds;
+		}
+		
+	}
+	
+	/**
+	 * Write behind queue used by enqueueIndex and enqueueDelete
+	 * search.opensearch.write-behind.*
+	 */
+	private WriteBehind writeBehind = new WriteBehind();
+	
+	
+	public WriteBehind getWriteBehind() {
+		return writeBehind;
+	}
+
+
+	public void setWriteBehind(WriteBehind writeBehind) {
+		this.writeBehind = writeBehind;
+	}
+	
+	
+	public static class WriteBehind {
+		
+		/**
+		 * queue writes and send them in bulk from a background thread
+		 */
+		private boolean enabled = false;
+		
+		/**
+		 * products writes queued or being sent before callers wait
+		 */
+		private int maxPending = 10000;
+		
+		/**
+		 * pending products writes triggering a flush
+		 */
+		private int flushSize = 500;
+		
+		/**
+		 * maximum time a write stays queued
+		 */
+		private long flushIntervalInMillis = 1000;
+		
+		/**
+		 * time a caller waits when the queue is full before the write is rejected
+		 */
+		private long offerTimeoutInMillis = 30000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxPending() {
+			return maxPending;
+		}
+
+		public void setMaxPending(int maxPending) {
+			this.maxPending = maxPending;
+		}
+
+		public int getFlushSize() {
+			return flushSize;
+		}
+
+		public void setFlushSize(int flushSize) {
+			this.flushSize = flushSize;
+		}
+
+		public long getFlushIntervalInMillis() {
+			return flushIntervalInMillis;
+		}
+
+		public void setFlushIntervalInMillis(long flushIntervalInMillis) {
+			this.flushIntervalInMillis = flushIntervalInMillis;
+		}
+
+		public long getOfferTimeoutInMillis() {
+			return offerTimeoutInMillis;
+		}
+
+		public void setOfferTimeoutInMillis(long offerTimeoutInMillis) {
+			this.offerTimeoutInMillis = offerTimeoutInMillis;
+		}
+		
+	}
+	
+	/**
+	 * Retry of rejected (429), unavailable (502, 503, 504) and timed out requests
+	 * search.opensearch.retry.*
+	 */
+	private Retry retry = new Retry();
+	
+	
+	public Retry getRetry() {
+		return retry;
+	}
+
+
+	public void setRetry(Retry retry) {
+		this.retry = retry;
+	}
+	
+	
+	public static class Retry {
+		
+		/**
+		 * retry requests and failed bulk items
+		 */
+		private boolean enabled = true;
+		
+		/**
+		 * retries of a request after the first attempt
+		 */
+		private int maxRetries = 3;
+		
+		/**
+		 * backoff ceiling of the first retry, doubled on each retry
+		 */
+		private long initialBackoffInMillis = 50;
+		
+		/**
+		 * maximum backoff ceiling
+		 */
+		private long maxBackoffInMillis = 5000;
+		
+		/**
+		 * retries allowed per budget window for all requests
+		 */
+		private int budget = 100;
+		
+		/**
+		 * budget window
+		 */
+		private long budgetWindowInMillis = 10000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxRetries() {
+			return maxRetries;
+		}
+
+		public void setMaxRetries(int maxRetries) {
+			this.maxRetries = maxRetries;
+		}
+
+		public long getInitialBackoffInMillis() {
+			return initialBackoffInMillis;
+		}
+
+		public void setInitialBackoffInMillis(long initialBackoffInMillis) {
+			this.initialBackoffInMillis = initialBackoffInMillis;
+		}
+
+		public long getMaxBackoffInMillis() {
+			return maxBackoffInMillis;
+		}
+
+		public void setMaxBackoffInMillis(long maxBackoffInMillis) {
+			this.maxBackoffInMillis = maxBackoffInMillis;
+		}
+
+		public int getBudget() {
+			return budget;
+		}
+
+		public void setBudget(int budget) {
+			this.budget = budget;
+		}
+
+		public long getBudgetWindowInMillis() {
+			return budgetWindowInMillis;
+		}
+
+		public void setBudgetWindowInMillis(long budgetWindowInMillis) {
+			this.budgetWindowInMillis = budgetWindowInMillis;
+		}
+		
+	}
+	
+	/**
+	 * Bulk batch size and concurrency tuned from latency and rejections, bulk.max-actions and bulk.concurrent-requests are initial values
+	 * search.opensearch.adaptive-bulk.*
+	 */
+	private AdaptiveBulk adaptiveBulk = new AdaptiveBulk();
+	
+	
+	public AdaptiveBulk getAdaptiveBulk() {
+		return adaptiveBulk;
+	}
+
+
+	public void setAdaptiveBulk(AdaptiveBulk adaptiveBulk) {
+		this.adaptiveBulk = adaptiveBulk;
+	}
+	
+	
+	public static class AdaptiveBulk {
+		
+		/**
+		 * tune batch size and concurrency of bulk requests
+		 */
+		private boolean enabled = false;
+		
+		/**
+		 * minimum actions per bulk request
+		 */
+		private int minActions = 100;
+		
+		/**
+		 * maximum actions per bulk request
+		 */
+		private int maxActions = 10000;
+		
+		/**
+		 * minimum concurrent bulk requests
+		 */
+		private int minConcurrentRequests = 1;
+		
+		/**
+		 * maximum concurrent bulk requests
+		 */
+		private int maxConcurrentRequests = 8;
+		
+		/**
+		 * bulk requests slower than target decrease limits
+		 */
+		private long targetLatencyInMillis = 1000;
+		
+		/**
+		 * actions added after a bulk request completing under target latency
+		 */
+		private int increaseStep = 100;
+		
+		/**
+		 * factor applied to limits after a slow or rejected bulk request
+		 */
+		private double decreaseFactor = 0.5;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMinActions() {
+			return minActions;
+		}
+
+		public void setMinActions(int minActions) {
+			this.minActions = minActions;
+		}
+
+		public int getMaxActions() {
+			return maxActions;
+		}
+
+		public void setMaxActions(int maxActions) {
+			this.maxActions = maxActions;
+		}
+
+		public int getMinConcurrentRequests() {
+			return minConcurrentRequests;
+		}
+
+		public void setMinConcurrentRequests(int minConcurrentRequests) {
+			this.minConcurrentRequests = minConcurrentRequests;
+		}
+
+		public int getMaxConcurrentRequests() {
+			return maxConcurrentRequests;
+		}
+
+		public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+			this.maxConcurrentRequests = maxConcurrentRequests;
+		}
+
+		public long getTargetLatencyInMillis() {
+			return targetLatencyInMillis;
+		}
+
+		public void setTargetLatencyInMillis(long targetLatencyInMillis) {
+			this.targetLatencyInMillis = targetLatencyInMillis;
+		}
+
+		public int getIncreaseStep() {
+			return increaseStep;
+		}
+
+		public void setIncreaseStep(int increaseStep) {
+			this.increaseStep = increaseStep;
+		}
+
+		public double getDecreaseFactor() {
+			return decreaseFactor;
+		}
+
+		public void setDecreaseFactor(double decreaseFactor) {
+			this.decreaseFactor = decreaseFactor;
+		}
+		
+	}
+	
+	/**
+	 * Store based routing, documents of a store are on a single shard
+	 * search.opensearch.routing.*
+	 */
+	private Routing routing = new Routing();
+	
+	
+	public Routing getRouting() {
+		return routing;
+	}
+
+
+	public void setRouting(Routing routing) {
+		this.routing = routing;
+	}
+	
+	
+	public static class Routing {
+		
+		/**
+		 * route documents and store searches by store, requires a full reindex when changed
+		 */
+		private boolean enabled = false;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+		
+	}
+	
+	/**
+	 * Layout of products and keywords indices, ignored when an IndexNamingStrategy bean exists
+	 * search.opensearch.index-layout.*
+	 */
+	private IndexLayout indexLayout = new IndexLayout();
+	
+	
+	public IndexLayout getIndexLayout() {
+		return indexLayout;
+	}
+
+
+	public void setIndexLayout(IndexLayout indexLayout) {
+		this.indexLayout = indexLayout;
+	}
+	
+	
+	public static class IndexLayout {
+		
+		/**
+		 * shared, per-store or hybrid
+		 */
+		private IndexLayoutType type = IndexLayoutType.SHARED;
+		
+		/**
+		 * stores having their own indices with the hybrid layout
+		 */
+		private List<String> dedicatedStores = new ArrayList<String>();
+
+		public IndexLayoutType getType() {
+			return type;
+		}
+
+		public void setType(IndexLayoutType type) {
+			this.type = type;
+		}
+
+		public List<String> getDedicatedStores() {
+			return dedicatedStores;
+		}
+
+		public void setDedicatedStores(List<String> dedicatedStores) {
+			this.dedicatedStores = dedicatedStores;
+		}
+		
+	}
+	
+	/**
+	 * Terms aggregations of products search, one per requested field
+	 * search.opensearch.facets.*
+	 */
+	private Facets facets = new Facets();
+	
+	
+	public Facets getFacets() {
+		return facets;
+	}
+
+
+	public void setFacets(Facets facets) {
+		this.facets = facets;
+	}
+	
+	
+	public static class Facets {
+		
+		/**
+		 * buckets returned per field
+		 */
+		private int size = 10;
+		
+		/**
+		 * minimum products in a bucket
+		 */
+		private long minDocCount = 1;
+		
+		/**
+		 * buckets returned by field, overrides size
+		 */
+		private Map<String, Integer> sizes = new HashMap<String, Integer>();
+
+		public int getSize() {
+			return size;
+		}
+
+		public void setSize(int size) {
+			this.size = size;
+		}
+
+		public long getMinDocCount() {
+			return minDocCount;
+		}
+
+		public void setMinDocCount(long minDocCount) {
+			this.minDocCount = minDocCount;
+		}
+
+		public Map<String, Integer> getSizes() {
+			return sizes;
+		}
+
+		public void setSizes(Map<String, Integer> sizes) {
+			this.sizes = sizes;
+		}
+		
+	}
+	
+	/**
+	 * In JVM cache of facet counts by store, language and filters, invalidated on writes to the store
+	 * search.opensearch.facet-cache.*
+	 */
+	private FacetCache facetCache = new FacetCache();
+	
+	
+	public FacetCache getFacetCache() {
+		return facetCache;
+	}
+
+
+	public void setFacetCache(FacetCache facetCache) {
+		this.facetCache = facetCache;
+	}
+	
+	
+	public static class FacetCache {
+		
+		/**
+		 * facets are cached when enabled
+		 */
+		private boolean enabled = false;
+		
+		/**
+		 * least recently used entries are evicted above max entries
+		 */
+		private int maxEntries = 1000;
+		
+		/**
+		 * entries expire after ttl, bounds staleness of writes not made through this module
+		 */
+		private long ttlInSeconds = 300;
+		
+		/**
+		 * entries of a store are evicted again after this delay once a write completed,
+		 * index refresh interval plus the time a refresh takes, 0 to disable
+		 */
+		private long refreshDelayInMillis = 2000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		public long getTtlInSeconds() {
+			return ttlInSeconds;
+		}
+
+		public void setTtlInSeconds(long ttlInSeconds) {
+			this.ttlInSeconds = ttlInSeconds;
+		}
+
+		public long getRefreshDelayInMillis() {
+			return refreshDelayInMillis;
+		}
+
+		public void setRefreshDelayInMillis(long refreshDelayInMillis) {
+			this.refreshDelayInMillis = refreshDelayInMillis;
+		}
+		
+	}
+	
+	/**
+	 * In JVM autocomplete cache by store, language and normalized prefix, invalidated on writes to the store
+	 * search.opensearch.keywords-cache.*
+	 */
+	private KeywordsCache keywordsCache = new KeywordsCache();
+	
+	
+	public KeywordsCache getKeywordsCache() {
+		return keywordsCache;
+	}
+
+
+	public void setKeywordsCache(KeywordsCache keywordsCache) {
+		this.keywordsCache = keywordsCache;
+	}
+	
+	
+	public static class KeywordsCache {
+		
+		/**
+		 * autocomplete results are cached when enabled
+		 */
+		private boolean enabled = false;
+		
+		/**
+		 * least recently used entries are evicted above max entries
+		 */
+		private int maxEntries = 10000;
+		
+		/**
+		 * entries expire after ttl, bounds staleness of writes not made through this module
+		 */
+		private long ttlInSeconds = 60;
+		
+		/**
+		 * entries of a store are evicted again after this delay once a write completed,
+		 * index refresh interval plus the time a refresh takes, 0 to disable
+		 */
+		private long refreshDelayInMillis = 2000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		public long getTtlInSeconds() {
+			return ttlInSeconds;
+		}
+
+		public void setTtlInSeconds(long ttlInSeconds) {
+			this.ttlInSeconds = ttlInSeconds;
+		}
+
+		public long getRefreshDelayInMillis() {
+			return refreshDelayInMillis;
+		}
+
+		public void setRefreshDelayInMillis(long refreshDelayInMillis) {
+			this.refreshDelayInMillis = refreshDelayInMillis;
+		}
+		
+	}
+	
+	/**
+	 * Partial updates of products documents (updateInventory, updatePrice, update)
+	 * search.opensearch.update.*
+	 */
+	private Update update = new Update();
+	
+	
+	public Update getUpdate() {
+		return update;
+	}
+
+
+	public void setUpdate(Update update) {
+		this.update = update;
+	}
+	
+	
+	public static class Update {
+		
+		/**
+		 * times an update is retried on the shard when the document changed concurrently (409), 0 reports conflicts as failures
+		 */
+		private int retryOnConflict = 3;
+
+		public int getRetryOnConflict() {
+			return retryOnConflict;
+		}
+
+		public void setRetryOnConflict(int retryOnConflict) {
+			this.retryOnConflict = retryOnConflict;
+		}
+		
+	}
+	
+	/**
+	 * Micrometer meters, registered when a MeterRegistry exists
+	 * search.opensearch.metrics.*
+	 */
+	private Metrics metrics = new Metrics();
+	
+	
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+	
+	
+	public static class Metrics {
+		
+		/**
+		 * Publish histogram buckets of request latencies, one series per bucket for each operation, index, language and status
+		 */
+		private boolean percentileHistogram = false;
+
+		public boolean isPercentileHistogram() {
+			return percentileHistogram;
+		}
+
+		public void setPercentileHistogram(boolean percentileHistogram) {
+			this.percentileHistogram = percentileHistogram;
+		}
+		
+	}
 
 
 
@@ -0,0 +1,49 @@
+package com.shopizer.search.autoconfigure;
+
+/**
+ * Metrics recorded by the search module
+ * Default implementation records nothing, MicrometerSearchMetrics is registered
+ * by SearchAutoConfiguration when a MeterRegistry is available
+ */
+public interface SearchMetrics {
+	
+	SearchMetrics NOOP = new SearchMetrics() {};
+	
+	/**
+	 * Latency of a request to the cluster
+	 * @param operation module operation (index, delete, searchProducts ...)
+	 * @param index target index or api endpoint (_bulk)
+	 * @param language
+	 * @param durationInNanos
+	 * @param status http status of the response, 0 when no response was received
+	 */
+	default void request(String operation, String index, String language, long durationInNanos, int status) {}
+	
+	/**
+	 * Failed request or failed document of a bulk request
+	 */
+	default void failure(String operation, String index, String language, int status) {}
+	
+	/**
+	 * Number of hits returned by a search
+	 */
+	default void hits(String index, String language, long hits) {}
+	
+	/**
+	 * Size of an indexed document
+	 */
+	default void documentSize(String index, String language, long sizeInBytes) {}
+	
+	/**
+	 * Current bulk batch size and concurrent bulk requests
+	 */
+	default void bulkLimits(int maxActions, int concurrentRequests) {}
+	
+	/**
+	 * Lookup in an in JVM search cache
+	 * @param cache cache name
+	 * @param hit true when the value was cached
+	 */
+	default void cache(String cache, boolean hit) {}
+
+}
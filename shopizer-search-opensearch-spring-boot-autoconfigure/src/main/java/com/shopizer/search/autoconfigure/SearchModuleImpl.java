@@ -1,38 +1,64 @@
 package com.shopizer.search.autoconfigure;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.lucene.search.join.ScoreMode;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
 import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.delete.DeleteResponse;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.action.update.UpdateRequest;
 import org.opensearch.client.RequestOptions;
+import org.opensearch.client.RestHighLevelClient;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.index.query.BoolQueryBuilder;
 import org.opensearch.index.query.MultiMatchQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.index.query.TermQueryBuilder;
+import org.opensearch.index.reindex.BulkByScrollResponse;
+import org.opensearch.index.reindex.DeleteByQueryRequest;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.script.Script;
+import org.opensearch.script.ScriptType;
 import org.opensearch.search.SearchHit;
 import org.opensearch.search.SearchHits;
-import org.opensearch.search.aggregations.AggregationBuilders;
-import org.opensearch.search.aggregations.Aggregations;
-import org.opensearch.search.aggregations.bucket.terms.Terms;
-import org.opensearch.search.aggregations.bucket.terms.Terms.Bucket;
-import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
 import org.opensearch.search.builder.SearchSourceBuilder;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopizer.search.autoconfigure.BulkResult.BulkItemFailure;
 
 import modules.commons.search.SearchModule;
 import modules.commons.search.configuration.SearchConfiguration;
@@ -64,16 +90,98 @@ public class SearchModuleImpl implements SearchModule {
 
 	private String uniqueCode = "opensearch";
 	private SearchClient searchClient = null;
+	private final SearchConfigurationProperties properties;
+	private SearchMetrics metrics = SearchMetrics.NOOP;
+	private WriteBehindQueue writeBehind = null;
+	private IndexNamingStrategy indexNamingStrategy;
+	private SearchCache<Map<String, List<Aggregation>>> facetCache = null;
+	private SearchCache<KeywordsHits> keywordsCache = null;
+	private volatile ReindexWrites reindexWrites = null;
 	
-	private final static String PRODUCTS_INDEX = "products_";
-	private final static String KEYWORDS_INDEX = "keywords_";
-	private final static String DEFAULT_AGGREGATION = "aggregations";
+	private final static String INVENTORY_FIELD = "inventory";
+	private final static String UPDATE_PRICE_SCRIPT = 
+			"if (ctx._source.inventory != null) { for (item in ctx._source.inventory) { "
+			+ "if (params.prices.containsKey(item.SKU)) { item.PRICE = params.prices.get(item.SKU); } } }";
+	private final static DateTimeFormatter REINDEX_VERSION = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+	
+	/**
+	 * Count of products search responses when total hits counting is disabled
+	 */
+	public final static long COUNT_NOT_TRACKED = -1;
+	
+	
+	public SearchModuleImpl() {
+		this(new SearchConfigurationProperties());
+	}
+	
+	public SearchModuleImpl(SearchConfigurationProperties properties) {
+		Validate.notNull(properties, "SearchConfigurationProperties cannot be null");
+		this.properties = properties;
+		this.indexNamingStrategy = IndexNamingStrategy.of(properties.getIndexLayout());
+	}
+
+
+
+	public void setMetrics(SearchMetrics metrics) {
+		Validate.notNull(metrics, "SearchMetrics cannot be null");
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Replaces the layout configured by search.opensearch.index-layout, before configure
+	 */
+	public void setIndexNamingStrategy(IndexNamingStrategy indexNamingStrategy) {
+		Validate.notNull(indexNamingStrategy, "IndexNamingStrategy cannot be null");
+		this.indexNamingStrategy = indexNamingStrategy;
+	}
 
 
 
 	@Override
 	public void configure(SearchConfiguration configuration) throws Exception {
-		searchClient = SearchClient.getInstance(configuration);	
+		searchClient = SearchClient.getInstance(configuration, properties, indexNamingStrategy, metrics);	
+		if(properties.getWriteBehind().isEnabled()) {
+			if(writeBehind != null) {
+				writeBehind.close();
+			}
+			writeBehind = new WriteBehindQueue(searchClient, properties.getBulk(), properties.getWriteBehind(), metrics, this::invalidate);
+		}
+		SearchConfigurationProperties.FacetCache facets = properties.getFacetCache();
+		if(facets.isEnabled()) {
+			if(facetCache != null) {
+				facetCache.close();
+			}
+			facetCache = new SearchCache<Map<String, List<Aggregation>>>("facets", facets.getMaxEntries(), facets.getTtlInSeconds(), facets.getRefreshDelayInMillis(), metrics);
+		}
+		SearchConfigurationProperties.KeywordsCache keywords = properties.getKeywordsCache();
+		if(keywords.isEnabled()) {
+			if(keywordsCache != null) {
+				keywordsCache.close();
+			}
+			keywordsCache = new SearchCache<KeywordsHits>("keywords", keywords.getMaxEntries(), keywords.getTtlInSeconds(), keywords.getRefreshDelayInMillis(), metrics);
+		}
+	}
+
+
+	/**
+	 * Releases the OpenSearch client, invoked by Spring when the context closes
+	 */
+	public void close() throws Exception {
+		//pending writes are sent before the client is released
+		if(writeBehind != null) {
+			writeBehind.close();
+			writeBehind = null;
+		}
+		if(facetCache != null) {
+			facetCache.close();
+		}
+		if(keywordsCache != null) {
+			keywordsCache.close();
+		}
+		if(searchClient != null) {
+			SearchClient.close();
+			searchClient = null;
+		}
 	}
 
 
@@ -97,43 +205,50 @@ public class SearchModuleImpl implements SearchModule {
 			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before trying to index.");
 		}
 		
+		//writes before indices exist would create them with dynamic mappings
+		searchClient.awaitProvisioning();
 
 		//index to product
-        IndexRequest request = new IndexRequest(new StringBuilder().append(PRODUCTS_INDEX).append(item.getLanguage()).toString());
-        request.id(String.valueOf(item.getId()));
-        Map<String, Object> product = parameters(item);
-        request.source(product);
+        final IndexRequest productRequest = recorded(productRequest(item));
         
-        IndexResponse indexResponse = searchClient.getClient().index(request, RequestOptions.DEFAULT);
-        System.out.println("Adding product document:");
-        System.out.println(indexResponse);
+        timed("index", productRequest.index(), item.getLanguage(), 
+        		() -> searchClient.getClient().index(productRequest, RequestOptions.DEFAULT));
         
         //index to keyword
+        final IndexRequest keywordRequest = recorded(keywordRequest(item));
         
-        //name, brand and category
+        timed("index", keywordRequest.index(), item.getLanguage(), 
+        		() -> searchClient.getClient().index(keywordRequest, RequestOptions.DEFAULT));
         
-        request = new IndexRequest(new StringBuilder().append(KEYWORDS_INDEX).append(item.getLanguage()).toString());
-        request.id(String.valueOf(item.getId()));
-        //Map<String, Object> keyword = this.parameters(k);
-        Map<String, Object> map = new HashMap<>();
-        map.put("store", item.getStore());
-        map.put("suggestions", item.getName());
-        request.source(map);
-        
-        indexResponse = searchClient.getClient().index(request, RequestOptions.DEFAULT);
-        //System.out.println("Adding keyword document:");
-        //System.out.println(indexResponse);
+        invalidate(item.getStore());
 		
 	}
 	
-    private Map<String, Object> parameters(Object obj) {
-        Map<String, Object> map = new HashMap<>();
-        for (Field field : obj.getClass().getDeclaredFields()) {
-            field.setAccessible(true);
-            try { map.put(field.getName(), field.get(obj)); } catch (Exception e) { }
-        }
-        return map;
-    }
+	private IndexRequest productRequest(IndexItem item) throws IOException {
+		return productRequest(item, productsIndexBuilder(item.getStore(), item.getLanguage()));
+	}
+	
+	private IndexRequest productRequest(IndexItem item, String index) throws IOException {
+        IndexRequest request = new IndexRequest(index);
+        request.id(String.valueOf(item.getId()));
+        request.routing(routing(item.getStore()));
+        request.source(IndexItemSerializer.product(item));
+        metrics.documentSize(request.index(), item.getLanguage(), request.source().length());
+        return request;
+	}
+	
+	private IndexRequest keywordRequest(IndexItem item) throws IOException {
+		return keywordRequest(item, keywordsIndexBuilder(item.getStore(), item.getLanguage()));
+	}
+	
+	private IndexRequest keywordRequest(IndexItem item, String index) throws IOException {
+        //name, brand and category
+        IndexRequest request = new IndexRequest(index);
+        request.id(String.valueOf(item.getId()));
+        request.routing(routing(item.getStore()));
+        request.source(IndexItemSerializer.keyword(item));
+        return request;
+	}
     
     class KeywordIndex {
     	
@@ -149,63 +264,751 @@ public class SearchModuleImpl implements SearchModule {
 	
     }
 
+	/**
+	 * Indexes all items through _bulk requests
+	 * Throws an exception listing failed documents once every item has been sent
+	 */
 	@Override
-	public void index(List<IndexItem> item) throws Exception {
-		item.stream().forEach(i -> {
-			try {
-				index(i);
-			} catch (final Exception e) {
-				throw new RuntimeException(e);
+	public void index(List<IndexItem> items) throws Exception {
+		BulkResult result = bulkIndex(items);
+		if(result.hasFailures()) {
+			throw new Exception("Bulk indexing failed for [" + result.getFailures().size() + "] documents " + result.getFailures());
+		}
+	}
+	
+	/**
+	 * Indexes products and keywords documents of all items in batches
+	 * bounded by search.opensearch.bulk configuration
+	 * @param items
+	 * @return BulkResult containing per document failures
+	 * @throws Exception
+	 */
+	public BulkResult bulkIndex(List<IndexItem> items) throws Exception {
+		
+		Validate.notNull(items, "Items must not be null");
+		
+		if(searchClient == null) {
+			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before trying to index.");
+		}
+		
+		//validate all items before sending anything
+		for(IndexItem item : items) {
+			Validate.notNull(item, "Item must not be null");
+			Validate.notNull(item.getLanguage(),"Languge must not be null");
+		}
+		
+		searchClient.awaitProvisioning();
+		
+		BulkIndexer indexer = new BulkIndexer(searchClient, properties.getBulk(), metrics);
+		Set<String> stores = new HashSet<String>();
+		for(IndexItem item : items) {
+			indexer.add(recorded(productRequest(item)));
+			indexer.add(recorded(keywordRequest(item)));
+			stores.add(item.getStore());
+		}
+		
+		try {
+			return indexer.awaitClose();
+		} finally {
+			stores.forEach(this::invalidate);
+		}
+		
+	}
+	
+	/**
+	 * Queues products and keywords documents of an item, pending writes of the same
+	 * product and language are replaced. Indexes synchronously when search.opensearch.write-behind
+	 * is not enabled
+	 * @param item
+	 * @throws Exception when the queue stays full
+	 */
+	public void enqueueIndex(IndexItem item) throws Exception {
+		
+		if(writeBehind == null) {
+			index(item);
+			return;
+		}
+		
+		Validate.notNull(item, "Item must not be null");
+		Validate.notNull(item.getId(), "Item id must not be null");
+		Validate.notNull(item.getLanguage(),"Languge must not be null");
+		
+		searchClient.awaitProvisioning();
+		
+		List<DocWriteRequest<?>> requests = new ArrayList<DocWriteRequest<?>>(2);
+		requests.add(recorded(productRequest(item)));
+		requests.add(recorded(keywordRequest(item)));
+		writeBehind.offer(item.getStore(), item.getId(), item.getLanguage().toLowerCase(), requests);
+	}
+	
+	/**
+	 * Queues deletion of a product in all languages, replacing pending writes.
+	 * Deletes synchronously when search.opensearch.write-behind is not enabled
+	 * @param languages
+	 * @param id
+	 * @throws Exception when the queue stays full or the store is required
+	 */
+	public void enqueueDelete(List<String> languages, Long id) throws Exception {
+		requireStore("delete");
+		enqueueDelete(null, languages, id);
+	}
+	
+	/**
+	 * Queues deletion of a product of a store in all languages
+	 * A null store is deleted synchronously with a _delete_by_query when routing is enabled or indices are by store
+	 * @param store routing of the documents when search.opensearch.routing is enabled
+	 * @param languages
+	 * @param id
+	 * @throws Exception when the queue stays full
+	 */
+	public void enqueueDelete(String store, List<String> languages, Long id) throws Exception {
+		
+		//delete by query is not queued
+		if(writeBehind == null || storeUnknown(store)) {
+			BulkResult result = delete(store, languages, Collections.singletonList(id));
+			if(result.hasFailures()) {
+				throw new Exception("Delete failed for [" + result.getFailures().size() + "] documents " + result.getFailures());
 			}
-		});
+			return;
+		}
+		
+		Validate.notNull(languages, "languages cannot be null");
+		Validate.notEmpty(languages, "Languages cannot be empry");
+		Validate.notNull(id, "id cannot be null");
 		
+		for(String l : languages) {
+			String language = l.toLowerCase();
+			List<DocWriteRequest<?>> requests = new ArrayList<DocWriteRequest<?>>(2);
+			requests.add(recorded(new DeleteRequest(productsIndexBuilder(store, language), String.valueOf(id)).routing(routing(store))));
+			requests.add(recorded(new DeleteRequest(keywordsIndexBuilder(store, language), String.valueOf(id)).routing(routing(store))));
+			writeBehind.offer(store, id, language, requests);
+		}
 	}
-
-
-	@Override
-	public void delete(List<String> languages, Long id) throws Exception {
+	
+	/**
+	 * Sends queued writes and waits for completion
+	 * @return BulkResult of queued writes, empty when write behind is not enabled,
+	 * writes queued again after a retryable failure are not reported
+	 * @throws Exception
+	 */
+	public BulkResult flushQueue() throws Exception {
+		if(writeBehind == null) {
+			return new BulkResult();
+		}
+		return writeBehind.flush();
+	}
+	
+	/**
+	 * Partial updates
+	 * only products documents are updated, keywords documents (name, brand, category) are left untouched
+	 */
+	
+	/**
+	 * Replaces inventory of products
+	 * @param languages
+	 * @param inventories inventory (SKU, QTY, PRICE entries) by product id
+	 * @return BulkResult containing per document failures, missing documents are reported as failures
+	 * @throws Exception
+	 */
+	public BulkResult updateInventory(List<String> languages, Map<Long, List<Map<String,String>>> inventories) throws Exception {
+		return updateInventory(null, languages, inventories);
+	}
+	
+	/**
+	 * Replaces inventory of products of a store
+	 * @param store routing of the documents, required when routing is enabled or indices are by store
+	 */
+	public BulkResult updateInventory(String store, List<String> languages, Map<Long, List<Map<String,String>>> inventories) throws Exception {
+		
+		Validate.notNull(inventories, "inventories cannot be null");
+		
+		Map<Long, Map<String, Object>> fields = new LinkedHashMap<Long, Map<String, Object>>();
+		inventories.forEach((id, inventory) -> fields.put(id, Collections.singletonMap(INVENTORY_FIELD, inventory)));
+		
+		return update(store, languages, fields);
+	}
+	
+	/**
+	 * Updates PRICE of inventory entries matching SKU, other inventory entries are kept
+	 * @param languages
+	 * @param prices price by SKU by product id
+	 * @return BulkResult containing per document failures, missing documents are reported as failures
+	 * @throws Exception
+	 */
+	public BulkResult updatePrice(List<String> languages, Map<Long, Map<String,String>> prices) throws Exception {
+		return updatePrice(null, languages, prices);
+	}
+	
+	/**
+	 * Updates PRICE of inventory entries matching SKU of products of a store
+	 * @param store routing of the documents, required when routing is enabled or indices are by store
+	 */
+	public BulkResult updatePrice(String store, List<String> languages, Map<Long, Map<String,String>> prices) throws Exception {
+		
+		Validate.notNull(prices, "prices cannot be null");
+		
+		return update(store, languages, prices.keySet(), (index, id) -> new UpdateRequest(index, String.valueOf(id))
+				.script(new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, UPDATE_PRICE_SCRIPT,
+						Collections.singletonMap("prices", prices.get(id)))));
+	}
+	
+	/**
+	 * Updates fields of products documents using partial documents
+	 * @param languages
+	 * @param fields fields to update by product id
+	 * @return BulkResult containing per document failures, missing documents are reported as failures
+	 * @throws Exception
+	 */
+	public BulkResult update(List<String> languages, Map<Long, Map<String, Object>> fields) throws Exception {
+		return update(null, languages, fields);
+	}
+	
+	/**
+	 * Updates fields of products documents of a store
+	 * @param store routing of the documents, required when routing is enabled or indices are by store
+	 */
+	public BulkResult update(String store, List<String> languages, Map<Long, Map<String, Object>> fields) throws Exception {
+		
+		Validate.notNull(fields, "fields cannot be null");
+		
+		return update(store, languages, fields.keySet(), (index, id) -> new UpdateRequest(index, String.valueOf(id)).doc(fields.get(id)));
+	}
+	
+	@FunctionalInterface
+	private interface UpdateRequestBuilder {
+		UpdateRequest build(String index, Long id);
+	}
+	
+	private BulkResult update(String store, List<String> languages, Collection<Long> ids, UpdateRequestBuilder builder) throws Exception {
 		
 		if(searchClient == null) {
 			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before trying to index.");
 		}
 		
+		if(storeUnknown(store)) {
+			throw new Exception("Store is required to update documents when search.opensearch.routing is enabled or indices are by store");
+		}
+		
 		Validate.notNull(languages, "languages cannot be null");
 		Validate.notEmpty(languages, "Languages cannot be empry");
 		
-		languages.stream().forEach(l -> {
-			try {
-				this.deleteDocument(l.toLowerCase(), id);
-			} catch (Exception e) {
-				throw new RuntimeException(e);
+		searchClient.awaitProvisioning();
+		
+		//concurrent inventory and price updates of a product conflict, they are retried on the shard
+		int retryOnConflict = properties.getUpdate().getRetryOnConflict();
+		
+		BulkIndexer indexer = new BulkIndexer(searchClient, properties.getBulk(), metrics);
+		for(Long id : ids) {
+			Validate.notNull(id, "id cannot be null");
+			for(String l : languages) {
+				indexer.add(recorded(builder.build(productsIndexBuilder(store, l.toLowerCase()), id)
+						.routing(routing(store))
+						.retryOnConflict(retryOnConflict)));
 			}
-		});
+		}
+		
+		try {
+			return indexer.awaitClose();
+		} finally {
+			invalidate(store);
+		}
+	}
+	
+	/**
+	 * Full reindex without downtime
+	 * 
+	 * New versioned products and keywords indices are created with refresh and replicas
+	 * disabled for each index of the layout (shared indices of each language, indices of each store found in items)
+	 * and loaded through _bulk requests. Configured settings are then restored, indices are
+	 * refreshed (and optionally force merged) and the aliases (products_{lang}, keywords_{lang} ...)
+	 * are moved atomically to the new indices.
+	 * 
+	 * Searches keep running on the previous indices until the swap. When more documents than
+	 * search.opensearch.reindex.max-failures fail the new indices are dropped and the aliases are left untouched.
+	 * 
+	 * Writes (index, update, delete) made while the reindex runs go through the aliases to the previous
+	 * indices, they are recorded and replayed in order on the new indices before the swap. Writes made
+	 * during the last replay and the swap wait for the aliases to point to the new indices.
+	 * @param languages
+	 * @param items all items of the catalog, items in languages not listed are ignored
+	 * @return BulkResult of the load and of the replayed writes
+	 * @throws Exception when a reindex is already running
+	 */
+	public BulkResult reindex(List<String> languages, Iterable<IndexItem> items) throws Exception {
+		
+		if(searchClient == null) {
+			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before trying to index.");
+		}
+		
+		Validate.notNull(languages, "languages cannot be null");
+		Validate.notEmpty(languages, "Languages cannot be empry");
+		Validate.notNull(items, "Items must not be null");
+		
+		ReindexWrites writes = new ReindexWrites();
+		synchronized(this) {
+			if(reindexWrites != null) {
+				throw new Exception("A reindex is already running");
+			}
+			reindexWrites = writes;
+		}
+		
+		SearchConfigurationProperties.Reindex reindex = properties.getReindex();
+		VersionedIndices versioned = new VersionedIndices(LocalDateTime.now().format(REINDEX_VERSION));
+		
+		//mappings and settings are configured per language code as declared
+		Map<String, String> languageCodes = new LinkedHashMap<String, String>();
+		languages.forEach(l -> languageCodes.put(l.toLowerCase(), l));
+		
+		try {
+			//indices provisioned at startup are rebuilt even without items
+			for(String l : languages) {
+				for(String index : indexNamingStrategy.provisionedIndices(IndexNamingStrategy.PRODUCTS, l.toLowerCase())) {
+					versioned.index(index, IndexNamingStrategy.PRODUCTS, l);
+				}
+				for(String index : indexNamingStrategy.provisionedIndices(IndexNamingStrategy.KEYWORDS, l.toLowerCase())) {
+					versioned.index(index, IndexNamingStrategy.KEYWORDS, l);
+				}
+			}
+			
+			BulkIndexer indexer = new BulkIndexer(searchClient, properties.getBulk(), metrics);
+			for(IndexItem item : items) {
+				Validate.notNull(item, "Item must not be null");
+				Validate.notNull(item.getLanguage(),"Languge must not be null");
+				String language = item.getLanguage().toLowerCase();
+				String l = languageCodes.get(language);
+				if(l == null) {
+					continue;
+				}
+				indexer.add(productRequest(item, versioned.index(productsIndexBuilder(item.getStore(), language), IndexNamingStrategy.PRODUCTS, l)));
+				indexer.add(keywordRequest(item, versioned.index(keywordsIndexBuilder(item.getStore(), language), IndexNamingStrategy.KEYWORDS, l)));
+			}
+			
+			BulkResult result = indexer.awaitClose();
+			if(result.getFailures().size() > reindex.getMaxFailures()) {
+				throw new Exception("Reindex failed for [" + result.getFailures().size() + "] documents " + result.getFailures());
+			}
+			
+			for(Map.Entry<String, String> index : versioned.indices.entrySet()) {
+				searchClient.restoreIndexSettings(index.getValue(), versioned.languages.get(index.getKey()), reindex.isForceMerge(), reindex.getMaxNumSegments(), reindex.getForceMergeTimeoutInSeconds());
+			}
+			
+			replay(writes.drain(), versioned, result);
+			
+			List<String> previous = new ArrayList<String>();
+			synchronized(writes) {
+				//writes made meanwhile, new writes wait until aliases are swapped
+				replay(writes.drain(), versioned, result);
+				for(Map.Entry<String, String> index : versioned.indices.entrySet()) {
+					previous.addAll(searchClient.swapAlias(index.getKey(), index.getValue()));
+					versioned.unswapped.remove(index.getValue());
+				}
+				writes.close();
+			}
+			
+			invalidate(null);
+			
+			if(reindex.isDeleteOldIndices()) {
+				searchClient.deleteIndices(previous);
+			}
+			
+			return result;
+			
+		} finally {
+			writes.close();
+			reindexWrites = null;
+			//aliases were not swapped, drop what has been built
+			if(!versioned.unswapped.isEmpty()) {
+				searchClient.deleteIndices(versioned.unswapped);
+			}
+		}
+		
+	}
+	
+	/**
+	 * Sends recorded writes to the versioned indices in order, a write of a document
+	 * already in the running batch waits for the batch to complete
+	 */
+	private void replay(List<Object> writes, VersionedIndices versioned, BulkResult result) throws Exception {
+		
+		BulkIndexer indexer = null;
+		Set<String> documents = new HashSet<String>();
+		for(Object write : writes) {
+			if(write instanceof DeletedIds) {
+				if(indexer != null) {
+					result.add(indexer.awaitClose());
+					indexer = null;
+					documents.clear();
+				}
+				replay((DeletedIds) write, versioned, result);
+				continue;
+			}
+			
+			DocWriteRequest<?> request = (DocWriteRequest<?>) write;
+			String index = versioned.indices.get(request.index());
+			//indices of stores without items are not rebuilt, writes already reached them
+			if(index == null) {
+				continue;
+			}
+			
+			String document = index + "/" + request.id();
+			if(documents.contains(document)) {
+				result.add(indexer.awaitClose());
+				indexer = null;
+				documents.clear();
+			}
+			if(indexer == null) {
+				indexer = new BulkIndexer(searchClient, properties.getBulk(), metrics);
+			}
+			documents.add(document);
+			indexer.add(copy(request, index));
+		}
+		
+		if(indexer != null) {
+			result.add(indexer.awaitClose());
+		}
+	}
+	
+	private void replay(DeletedIds deleted, VersionedIndices versioned, BulkResult result) throws Exception {
+		
+		List<String> indices = versioned.indices.entrySet().stream()
+				.filter(index -> deleted.language.equals(versioned.languages.get(index.getKey()).toLowerCase()))
+				.map(Map.Entry::getValue)
+				.collect(Collectors.toList());
+		if(indices.isEmpty()) {
+			return;
+		}
+		
+		//replayed documents are not searchable before a refresh
+		searchClient.refresh(indices);
+		
+		DeleteByQueryRequest request = new DeleteByQueryRequest(indices.toArray(new String[indices.size()]));
+		request.setQuery(idsQuery(deleted.ids));
+		deleteByQuery(request, deleted.language, result);
+	}
+	
+	/**
+	 * Copy of a write to another index, the recorded request may still be queued or in flight
+	 */
+	private DocWriteRequest<?> copy(DocWriteRequest<?> request, String index) throws IOException {
+		try(BytesStreamOutput out = new BytesStreamOutput()) {
+			DocWriteRequest.writeDocumentRequest(out, request);
+			try(StreamInput in = out.bytes().streamInput()) {
+				DocWriteRequest<?> copy = DocWriteRequest.readDocumentRequest(null, in);
+				copy.index(index);
+				return copy;
+			}
+		}
+	}
+	
+	/**
+	 * Records a write made through the aliases while a reindex runs
+	 */
+	private <T> T recorded(T write) {
+		ReindexWrites writes = reindexWrites;
+		if(writes != null) {
+			writes.add(write);
+		}
+		return write;
+	}
+	
+	/**
+	 * Writes (DocWriteRequest or DeletedIds) made while a reindex runs, in the order they were made
+	 */
+	private static class ReindexWrites {
+		
+		private final List<Object> writes = new ArrayList<Object>();
+		private boolean closed = false;
+		
+		synchronized void add(Object write) {
+			if(!closed) {
+				writes.add(write);
+			}
+		}
+		
+		synchronized List<Object> drain() {
+			List<Object> drained = new ArrayList<Object>(writes);
+			writes.clear();
+			return drained;
+		}
+		
+		synchronized void close() {
+			closed = true;
+			writes.clear();
+		}
+		
+	}
+	
+	/**
+	 * Products and keywords documents of a language deleted by query
+	 */
+	private static class DeletedIds {
+		
+		private final String language;
+		private final Collection<Long> ids;
+		
+		DeletedIds(String language, Collection<Long> ids) {
+			this.language = language;
+			this.ids = new ArrayList<Long>(ids);
+		}
+		
+	}
+	
+	/**
+	 * Versioned indices of a reindex by alias, created on first use
+	 */
+	private class VersionedIndices {
+		
+		private final String version;
+		private final Map<String, String> indices = new LinkedHashMap<String, String>();
+		private final Map<String, String> languages = new HashMap<String, String>();
+		private final List<String> unswapped = new ArrayList<String>();
+		
+		VersionedIndices(String version) {
+			this.version = version;
+		}
+		
+		String index(String alias, String prefix, String language) throws Exception {
+			String index = indices.get(alias);
+			if(index == null) {
+				String mappings = IndexNamingStrategy.PRODUCTS.equals(prefix) ? searchClient.getProductMappings(language) : searchClient.getKeywordsMappings(language);
+				index = searchClient.createVersionedIndex(alias, mappings, language, version);
+				indices.put(alias, index);
+				languages.put(alias, language);
+				unswapped.add(index);
+			}
+			return index;
+		}
+		
+	}
+
 
+	/**
+	 * Deletes products and keywords documents of a product in all languages
+	 * @throws Exception when routing is enabled or indices are by store, use delete(store, languages, ids)
+	 */
+	@Override
+	public void delete(List<String> languages, Long id) throws Exception {
+		
+		Validate.notNull(id, "id cannot be null");
+		requireStore("delete");
+		
+		BulkResult result = delete(languages, Collections.singletonList(id));
+		if(result.hasFailures()) {
+			throw new Exception("Delete failed for [" + result.getFailures().size() + "] documents " + result.getFailures());
+		}
 		
 	}
 	
-	private void deleteDocument(String language, Long documentId) throws Exception {
+	/**
+	 * Deletes products and keywords documents of all ids in all languages
+	 * through _bulk requests
+	 * @param languages
+	 * @param ids
+	 * @return BulkResult containing per document failures
+	 * @throws Exception when routing is enabled or indices are by store, use delete(store, languages, ids)
+	 */
+	public BulkResult delete(List<String> languages, List<Long> ids) throws Exception {
+		requireStore("delete");
+		return delete(null, languages, ids);
+	}
+	
+	/**
+	 * Deletes products and keywords documents of a store
+	 * When routing is enabled or indices are by store and store is null documents
+	 * are deleted with a _delete_by_query on all shards
+	 * @param store routing of the documents
+	 * @param languages
+	 * @param ids
+	 * @return BulkResult containing per document failures
+	 * @throws Exception
+	 */
+	public BulkResult delete(String store, List<String> languages, List<Long> ids) throws Exception {
 		
-		StringBuilder productsIndex = new StringBuilder().append(PRODUCTS_INDEX).append(language);
-		StringBuilder keywordIndex = new StringBuilder().append(KEYWORDS_INDEX).append(language);
+		if(searchClient == null) {
+			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before trying to index.");
+		}
 		
+		Validate.notNull(languages, "languages cannot be null");
+		Validate.notEmpty(languages, "Languages cannot be empry");
+		Validate.notNull(ids, "ids cannot be null");
 		
-		//delete product
-        DeleteRequest deleteDocumentRequest = new DeleteRequest(productsIndex.toString(), String.valueOf(documentId));
-        DeleteResponse deleteResponse = searchClient.getClient().delete(deleteDocumentRequest, RequestOptions.DEFAULT);
-        
-        
-        //delete keywords
-        deleteDocumentRequest = new DeleteRequest(keywordIndex.toString(), String.valueOf(documentId));
-        deleteResponse = searchClient.getClient().delete(deleteDocumentRequest, RequestOptions.DEFAULT);
+		//without store entries of all stores are invalidated
+		try {
+			if(storeUnknown(store)) {
+				return deleteByQuery(languages, ids);
+			}
+			
+			BulkIndexer indexer = new BulkIndexer(searchClient, properties.getBulk(), metrics);
+			for(Long id : ids) {
+				Validate.notNull(id, "id cannot be null");
+				for(String l : languages) {
+					String language = l.toLowerCase();
+					indexer.add(recorded(new DeleteRequest(productsIndexBuilder(store, language), String.valueOf(id)).routing(routing(store))));
+					indexer.add(recorded(new DeleteRequest(keywordsIndexBuilder(store, language), String.valueOf(id)).routing(routing(store))));
+				}
+			}
+			
+			return indexer.awaitClose();
+		} finally {
+			invalidate(store);
+		}
+	}
+	
+	private BulkResult deleteByQuery(List<String> languages, List<Long> ids) throws Exception {
 		
+		BulkResult result = new BulkResult();
+		for(String l : languages) {
+			recorded(new DeletedIds(l.toLowerCase(), ids));
+			deleteByQuery(deleteByQueryRequest(l.toLowerCase(), ids), l, result);
+		}
+		return result;
+	}
+	
+	private void deleteByQuery(DeleteByQueryRequest request, String language, BulkResult result) throws Exception {
+		BulkByScrollResponse response = timed("delete", request.indices()[0], language, 
+				() -> client().deleteByQuery(request, RequestOptions.DEFAULT));
+		result.success(response.getDeleted());
+		for(BulkItemResponse.Failure failure : response.getBulkFailures()) {
+			result.failure(new BulkItemFailure(failure.getIndex(), failure.getId(), failure.getStatus().getStatus(), failure.getMessage()));
+		}
+	}
+	
+	private DeleteByQueryRequest deleteByQueryRequest(String language, Collection<Long> ids) {
+		List<String> indices = new ArrayList<String>(indexNamingStrategy.indices(IndexNamingStrategy.PRODUCTS, language));
+		indices.addAll(indexNamingStrategy.indices(IndexNamingStrategy.KEYWORDS, language));
+		DeleteByQueryRequest request = new DeleteByQueryRequest(indices.toArray(new String[indices.size()]));
+		request.setQuery(idsQuery(ids));
+		return request;
+	}
+	
+	private QueryBuilder idsQuery(Collection<Long> ids) {
+		return QueryBuilders.idsQuery().addIds(ids.stream().map(String::valueOf).toArray(String[]::new));
+	}
+	
+	/**
+	 * Store routing, null when routing is not enabled
+	 */
+	private String routing(String store) {
+		return properties.getRouting().isEnabled() ? store : null;
+	}
+	
+	/**
+	 * Indices of a store are created from templates on its first write,
+	 * searching a store without documents returns no hits instead of index_not_found
+	 */
+	private void storeIndicesOptions(org.opensearch.action.search.SearchRequest search) {
+		if(indexNamingStrategy.dependsOnStore()) {
+			search.indicesOptions(IndicesOptions.lenientExpandOpen());
+		}
+	}
+	
+	/**
+	 * Store of documents is not known while routing or the index layout depends on it,
+	 * documents can be on any shard of any index
+	 */
+	private boolean storeUnknown(String store) {
+		return store == null && (properties.getRouting().isEnabled() || indexNamingStrategy.dependsOnStore());
+	}
+	
+	/**
+	 * Methods without store only address documents when the store does not matter,
+	 * the store aware methods look up or delete documents of an unknown (null) store on all shards
+	 */
+	private void requireStore(String operation) throws Exception {
+		if(storeUnknown(null)) {
+			throw new Exception("Store is required to " + operation + " documents when search.opensearch.routing is enabled or indices are by store, "
+					+ "pass the store or null to " + operation + " on all shards");
+		}
 	}
 
 
 	@Override
 	public SearchResponse searchKeywords(SearchRequest searchRequest) throws Exception {
+		return searchKeywords(searchRequest, defaultProjection(properties.getSearch().getKeywordsProjection()));
+	}
+	
+	/**
+	 * Autocomplete returning only the fields of the projection
+	 * @param searchRequest
+	 * @param projection null for the full _source
+	 * @return SearchResponse
+	 * @throws Exception
+	 */
+	public SearchResponse searchKeywords(SearchRequest searchRequest, SourceProjection projection) throws Exception {
+		
+		//cache is checked before the query is built
+		SearchCache.Key key = keywordsKey(searchRequest, projection);
+		SearchResponse cached = cachedKeywords(key);
+		if(cached != null) {
+			return cached;
+		}
+		
+		org.opensearch.action.search.SearchRequest search = keywordsSearchRequest(searchRequest, projection);
+		
+		org.opensearch.action.search.SearchResponse searchResponse = timed("searchKeywords", search.indices()[0], searchRequest.getLanguage(), 
+				() -> searchClient.getClient().search(search,RequestOptions.DEFAULT));
+		
+		return keywordsResponse(searchRequest, searchResponse, key);
+	}
+	
+	/**
+	 * Autocomplete cache key, prefix is trimmed, lower cased and spaces are collapsed
+	 * @return null when the cache is disabled
+	 */
+	private SearchCache.Key keywordsKey(SearchRequest searchRequest, SourceProjection projection) {
+		if(keywordsCache == null) {
+			return null;
+		}
+		validateKeywords(searchRequest);
+		StringBuilder key = new StringBuilder();
+		key.append(searchRequest.getLanguage().toLowerCase()).append('|');
+		if(projection != null) {
+			key.append(projection.getIncludes()).append(projection.getExcludes());
+		}
+		key.append('|').append(StringUtils.lowerCase(StringUtils.normalizeSpace(searchRequest.getSearchString())));
+		return new SearchCache.Key(searchRequest.getStore(), key.toString());
+	}
+	
+	private SearchResponse cachedKeywords(SearchCache.Key key) throws Exception {
+		if(key == null) {
+			return null;
+		}
+		KeywordsHits hits = keywordsCache.get(key);
+		return hits == null ? null : hits.response();
+	}
+	
+	/**
+	 * Cached autocomplete hits, _source of hits is kept so each response gets its own items
+	 */
+	private static class KeywordsHits {
+		
+		private final long count;
+		private final List<BytesReference> sources;
+		
+		KeywordsHits(long count, List<BytesReference> sources) {
+			this.count = count;
+			this.sources = sources;
+		}
+		
+		SearchResponse response() throws IOException {
+			SearchResponse response = new SearchResponse();
+			response.setCount(count);
+			for(BytesReference source : sources) {
+				response.getItems().add(SourceReader.searchItem(source));
+			}
+			return response;
+		}
+		
+	}
+	
+	private void validateKeywords(SearchRequest searchRequest) {
 		Validate.notNull(searchRequest, "SearchRequest must not be null");
 		Validate.notNull(searchRequest.getLanguage(), "SearchRequest.language must not be null");
 		Validate.notNull(searchRequest.getStore(), "SearchRequest.stoe must not be null");
+	}
+	
+	private org.opensearch.action.search.SearchRequest keywordsSearchRequest(SearchRequest searchRequest, SourceProjection projection) {
+		validateKeywords(searchRequest);
 		
 		MultiMatchQueryBuilder multiMatchQueryBuilder=new MultiMatchQueryBuilder(searchRequest.getSearchString(), new String[]{"suggestions", "suggestions._2gram", "suggestions._3gram"});
 		multiMatchQueryBuilder.type("bool_prefix");
@@ -214,13 +1017,18 @@ public class SearchModuleImpl implements SearchModule {
 		builder.must(multiMatchQueryBuilder);
 		builder.filter(QueryBuilders.termQuery("store", searchRequest.getStore()));
 		
-		org.opensearch.action.search.SearchRequest search = new org.opensearch.action.search.SearchRequest( new StringBuilder().append(KEYWORDS_INDEX).append(searchRequest.getLanguage()).toString());
+		org.opensearch.action.search.SearchRequest search = new org.opensearch.action.search.SearchRequest(keywordsIndexBuilder(searchRequest.getStore(), searchRequest.getLanguage()));
+		search.routing(routing(searchRequest.getStore()));
+		storeIndicesOptions(search);
 		SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
 		searchSourceBuilder.query(builder);
+		this.projection(searchSourceBuilder, projection);
 		
 		search.source(searchSourceBuilder);
-		
-		org.opensearch.action.search.SearchResponse searchResponse = searchClient.getClient().search(search,RequestOptions.DEFAULT);
+		return search;
+	}
+	
+	private SearchResponse keywordsResponse(SearchRequest searchRequest, org.opensearch.action.search.SearchResponse searchResponse, SearchCache.Key key) throws Exception {
 		RestStatus status = searchResponse.status();
 		
 		//check status
@@ -232,19 +1040,21 @@ public class SearchModuleImpl implements SearchModule {
 		
 		SearchResponse serviceResponse = new SearchResponse();
 		serviceResponse.setCount(hits.getTotalHits().value);
+		metrics.hits(keywordsIndexBuilder(searchRequest.getStore(), searchRequest.getLanguage()), searchRequest.getLanguage(), hits.getHits().length);
 		
+		List<BytesReference> sources = new ArrayList<BytesReference>(hits.getHits().length);
 		for (SearchHit hit : hits) {
-			Map<String, Object> sourceAsMap = hit.getSourceAsMap();
 			
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			
-			SearchItem item = mapper.convertValue(sourceAsMap, SearchItem.class);
+			SearchItem item = SourceReader.searchItem(hit.getSourceRef());
 			
 			serviceResponse.getItems().add(item);
+			sources.add(hit.getSourceRef());
 			
 		}
 		
+		if(key != null) {
+			keywordsCache.put(key, new KeywordsHits(hits.getTotalHits().value, sources));
+		}
 		
 		return serviceResponse;
 	}
@@ -252,11 +1062,135 @@ public class SearchModuleImpl implements SearchModule {
 
 	@Override
 	public SearchResponse searchProducts(SearchRequest searchRequest) throws Exception {
+		return searchProducts(searchRequest, 0, properties.getSearch().getPageSize());
+	}
+	
+	/**
+	 * Searches a page of products
+	 * @param searchRequest
+	 * @param from index of the first hit
+	 * @param size number of hits
+	 * @return SearchResponse, count follows search.opensearch.search.total-hits
+	 * @throws Exception
+	 */
+	public SearchResponse searchProducts(SearchRequest searchRequest, int from, int size) throws Exception {
+		return searchProducts(searchRequest, from, size, defaultProjection(properties.getSearch().getProductsProjection()));
+	}
+	
+	/**
+	 * Searches a page of products returning only the fields of the projection
+	 * @param searchRequest
+	 * @param from index of the first hit
+	 * @param size number of hits
+	 * @param projection null for the full _source
+	 * @return SearchResponse
+	 * @throws Exception
+	 */
+	public SearchResponse searchProducts(SearchRequest searchRequest, int from, int size, SourceProjection projection) throws Exception {
+		
+		Map<String, List<Aggregation>> facets = cachedFacets(searchRequest);
+		org.opensearch.action.search.SearchRequest search = productsSearchRequest(searchRequest, from, size, projection, facets == null);
+		
+		org.opensearch.action.search.SearchResponse searchResponse = timed("searchProducts", search.indices()[0], searchRequest.getLanguage(), 
+				() -> searchClient.getClient().search(search,searchClient.getLargeResponseOptions()));
+		
+		return productsResponse(searchRequest, searchResponse, facets);
+	}
+	
+	/**
+	 * Facets of products matching a request, without products
+	 * Facets are computed with a size 0 request using the shard request cache and kept
+	 * in the facets cache when search.opensearch.facet-cache is enabled
+	 * @param searchRequest request with aggregations
+	 * @return buckets by aggregation field
+	 * @throws Exception
+	 */
+	public Map<String, List<Aggregation>> searchFacets(SearchRequest searchRequest) throws Exception {
+		
+		Validate.notNull(searchRequest, "SearchRequest must not be null");
+		Validate.notEmpty(searchRequest.getAggregations(), "SearchRequest.aggregations must not be empty");
+		
+		Map<String, List<Aggregation>> facets = cachedFacets(searchRequest);
+		if(facets != null) {
+			return facets;
+		}
 		
+		org.opensearch.action.search.SearchRequest search = productsSearchRequest(searchRequest, 0, 0, null, true);
+		search.requestCache(true);
+		search.source().trackTotalHits(false);
+		
+		org.opensearch.action.search.SearchResponse searchResponse = timed("searchFacets", search.indices()[0], searchRequest.getLanguage(), 
+				() -> client().search(search, RequestOptions.DEFAULT));
+		
+		return ((FacetedSearchResponse)productsResponse(searchRequest, searchResponse, null)).getFacets();
+	}
+	
+	/**
+	 * Facets cache key, filters and fields are sorted
+	 */
+	private SearchCache.Key facetsKey(SearchRequest searchRequest) {
+		StringBuilder key = new StringBuilder();
+		key.append(searchRequest.getLanguage().toLowerCase()).append('|');
+		key.append(StringUtils.lowerCase(StringUtils.trimToEmpty(searchRequest.getSearchString()))).append('|');
+		key.append(searchRequest.getAggregations().stream().sorted().collect(Collectors.joining(","))).append('|');
+		if(!CollectionUtils.isEmpty(searchRequest.getFilters())) {
+			key.append(searchRequest.getFilters().stream()
+					.map(f -> f.getField() + (f.isVariant() ? "~" : "=") + f.getValue())
+					.sorted()
+					.collect(Collectors.joining(",")));
+		}
+		return new SearchCache.Key(searchRequest.getStore(), key.toString());
+	}
+	
+	/**
+	 * @return copy of cached facets, null when not cached or cache is disabled
+	 */
+	private Map<String, List<Aggregation>> cachedFacets(SearchRequest searchRequest) {
+		if(facetCache == null || searchRequest == null || CollectionUtils.isEmpty(searchRequest.getAggregations())
+				|| searchRequest.getLanguage() == null) {
+			return null;
+		}
+		Map<String, List<Aggregation>> cached = facetCache.get(facetsKey(searchRequest));
+		return cached == null ? null : copy(cached);
+	}
+	
+	/**
+	 * Aggregation is mutable, cached facets are never shared with callers
+	 */
+	private static Map<String, List<Aggregation>> copy(Map<String, List<Aggregation>> source) {
+		Map<String, List<Aggregation>> facets = new LinkedHashMap<String, List<Aggregation>>();
+		source.forEach((field, buckets) -> {
+			List<Aggregation> copy = new ArrayList<Aggregation>(buckets.size());
+			for(Aggregation bucket : buckets) {
+				Aggregation agg = new Aggregation();
+				agg.setName(bucket.getName());
+				agg.setCount(bucket.getCount());
+				copy.add(agg);
+			}
+			facets.put(field, copy);
+		});
+		return facets;
+	}
+	
+	/**
+	 * Invalidates cached results of a store once a write completed, all stores when store is null
+	 */
+	private void invalidate(String store) {
+		if(facetCache != null) {
+			facetCache.invalidate(store);
+		}
+		if(keywordsCache != null) {
+			keywordsCache.invalidate(store);
+		}
+	}
+	
+	private org.opensearch.action.search.SearchRequest productsSearchRequest(SearchRequest searchRequest, int from, int size, SourceProjection projection, boolean aggregations) {
 		
 		Validate.notNull(searchRequest, "SearchRequest must not be null");
 		Validate.notNull(searchRequest.getLanguage(), "SearchRequest.language must not be null");
 		Validate.notNull(searchRequest.getStore(), "SearchRequest.stoe must not be null");
+		Validate.isTrue(from >= 0, "from must be positive");
+		Validate.isTrue(size >= 0, "size must be positive");
 		
 		BoolQueryBuilder builder = QueryBuilders.boolQuery();
 		builder.must(//TODO Boost
@@ -269,28 +1203,61 @@ public class SearchModuleImpl implements SearchModule {
 			searchRequest.getFilters().stream().forEach(f -> this.buildFilter(f, builder));
 		}
 
-		TermsAggregationBuilder aggregation = null;
-		
-		//aggregations
-		if(!CollectionUtils.isEmpty(searchRequest.getAggregations())) {
-			aggregation = AggregationBuilders.terms(DEFAULT_AGGREGATION);
-			for(String agg : searchRequest.getAggregations()) {
-				aggregation.field(agg);
-			}
-		}
-
-		
-		org.opensearch.action.search.SearchRequest search = new org.opensearch.action.search.SearchRequest( new StringBuilder().append(PRODUCTS_INDEX).append(searchRequest.getLanguage()).toString());
+		org.opensearch.action.search.SearchRequest search = new org.opensearch.action.search.SearchRequest(productsIndexBuilder(searchRequest.getStore(), searchRequest.getLanguage()));
+		search.routing(routing(searchRequest.getStore()));
+		storeIndicesOptions(search);
 		SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
 		searchSourceBuilder.query(builder);
-		if(aggregation != null) {
-			searchSourceBuilder.aggregation(aggregation);
+		searchSourceBuilder.from(from);
+		searchSourceBuilder.size(size);
+		this.totalHits(searchSourceBuilder);
+		this.projection(searchSourceBuilder, projection);
+		
+		//aggregations, not computed when facets are cached
+		if(aggregations && !CollectionUtils.isEmpty(searchRequest.getAggregations())) {
+			FacetAggregations.build(searchSourceBuilder, searchRequest.getAggregations(), properties.getFacets());
 		}
 		search.source(searchSourceBuilder);
+		return search;
+	}
+	
+	/**
+	 * Named projection from search.opensearch.search.projections
+	 * @param name
+	 * @return SourceProjection
+	 */
+	public SourceProjection getProjection(String name) {
+		SourceProjection projection = properties.getSearch().getProjections().get(name);
+		Validate.notNull(projection, "Projection [" + name + "] is not configured in search.opensearch.search.projections");
+		return projection;
+	}
+	
+	private SourceProjection defaultProjection(String name) {
+		return name == null ? null : getProjection(name);
+	}
+	
+	private void projection(SearchSourceBuilder searchSourceBuilder, SourceProjection projection) {
+		if(projection != null) {
+			searchSourceBuilder.fetchSource(projection.includesArray(), projection.excludesArray());
+		}
+	}
+	
+	private void totalHits(SearchSourceBuilder searchSourceBuilder) {
+		SearchConfigurationProperties.Search configuration = properties.getSearch();
+		switch(configuration.getTotalHits()) {
+			case EXACT:
+				searchSourceBuilder.trackTotalHits(true);
+				break;
+			case DISABLED:
+				searchSourceBuilder.trackTotalHits(false);
+				break;
+			default:
+				searchSourceBuilder.trackTotalHitsUpTo(configuration.getTotalHitsThreshold());
+		}
+	}
+	
+	private SearchResponse productsResponse(SearchRequest searchRequest, org.opensearch.action.search.SearchResponse searchResponse, Map<String, List<Aggregation>> cachedFacets) throws Exception {
 		
-
-		
-		org.opensearch.action.search.SearchResponse searchResponse = searchClient.getClient().search(search,RequestOptions.DEFAULT);
 		RestStatus status = searchResponse.status();
 		
 		//check status
@@ -301,33 +1268,30 @@ public class SearchModuleImpl implements SearchModule {
 		SearchHits hits = searchResponse.getHits();
 		
 
-		SearchResponse serviceResponse = new SearchResponse();
-		serviceResponse.setCount(hits.getTotalHits().value);
+		FacetedSearchResponse serviceResponse = new FacetedSearchResponse();
+		//total hits are not returned when counting is disabled
+		serviceResponse.setCount(hits.getTotalHits() != null ? hits.getTotalHits().value : COUNT_NOT_TRACKED);
+		metrics.hits(productsIndexBuilder(searchRequest.getStore(), searchRequest.getLanguage()), searchRequest.getLanguage(), hits.getHits().length);
 		
 		for (SearchHit hit : hits) {
-			Map<String, Object> sourceAsMap = hit.getSourceAsMap();
 			
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-			
-			SearchItem item = mapper.convertValue(sourceAsMap, SearchItem.class);
+			SearchItem item = SourceReader.searchItem(hit.getSourceRef());
 			
 			serviceResponse.getItems().add(item);
 			
 		}
 		
-		Aggregations aggregations = searchResponse.getAggregations();
-
-		if(aggregations != null) {
-		
-			Terms aggregate = aggregations.get(DEFAULT_AGGREGATION);
-	
-			//get count per aggregations
-			for(Bucket bucket : aggregate.getBuckets()) {
-				Aggregation agg = new Aggregation();
-				agg.setCount(bucket.getDocCount());
-				agg.setName(bucket.getKeyAsString());
-				serviceResponse.getAggregations().add(agg);
+		if(cachedFacets != null) {
+			serviceResponse.setFacets(cachedFacets);
+			cachedFacets.values().forEach(serviceResponse.getAggregations()::addAll);
+		} else if(!CollectionUtils.isEmpty(searchRequest.getAggregations())) {
+			for(String field : searchRequest.getAggregations()) {
+				List<Aggregation> buckets = FacetAggregations.read(searchResponse.getAggregations(), field);
+				serviceResponse.getFacets().put(field, buckets);
+				serviceResponse.getAggregations().addAll(buckets);
+			}
+			if(facetCache != null) {
+				facetCache.put(facetsKey(searchRequest), copy(serviceResponse.getFacets()));
 			}
 		}
 		
@@ -335,6 +1299,39 @@ public class SearchModuleImpl implements SearchModule {
 		return serviceResponse;
 	}
 	
+	/**
+	 * Streams all products of a language, optionally restricted to a store
+	 * Documents are read page by page (search.opensearch.scan.page-size) through a
+	 * point in time with search_after, memory does not grow with the size of the catalog.
+	 * 
+	 * The stream must be closed to release the point in time early
+	 * <pre>
+	 * try(Stream&lt;SearchItem&gt; products = module.scanProducts("en", "default")) {
+	 *   products.forEach(...);
+	 * }
+	 * </pre>
+	 * @param language
+	 * @param store null for all stores
+	 * @return Stream of SearchItem
+	 * @throws Exception
+	 */
+	public Stream<SearchItem> scanProducts(String language, String store) throws Exception {
+		
+		Validate.notNull(language, "language must not be null");
+		
+		QueryBuilder query = QueryBuilders.matchAllQuery();
+		if(store != null) {
+			query = QueryBuilders.boolQuery().filter(QueryBuilders.termQuery("store", store));
+		}
+		
+		String[] indices = store == null ? productsIndices(language) : new String[] {productsIndexBuilder(store, language)};
+		ScanIterator iterator = new ScanIterator(client(), indices, language, routing(store), query, properties.getScan(), metrics);
+		
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(iterator::close);
+	}
+	
 	private void buildFilter(SearchFilter filter, BoolQueryBuilder builder) {
 		
 		TermQueryBuilder b = QueryBuilders.termQuery(filter.getField(),  filter.getValue());
@@ -363,76 +1360,399 @@ public class SearchModuleImpl implements SearchModule {
 
 	
 	
-	private String productsIndexBuilder(String language) {
-		return new StringBuilder().append(PRODUCTS_INDEX).append(language).toString();
-
+	private String productsIndexBuilder(String store, String language) {
+		return indexNamingStrategy.index(IndexNamingStrategy.PRODUCTS, store, language);
 	}
 	
-	private String keywordsIndexBuilder(String language) {
-		return new StringBuilder().append(KEYWORDS_INDEX).append(language).toString();
+	private String keywordsIndexBuilder(String store, String language) {
+		return indexNamingStrategy.index(IndexNamingStrategy.KEYWORDS, store, language);
+	}
+	
+	/**
+	 * Products indices of all stores
+	 */
+	private String[] productsIndices(String language) {
+		List<String> indices = indexNamingStrategy.indices(IndexNamingStrategy.PRODUCTS, language);
+		return indices.toArray(new String[indices.size()]);
 	}
 
 
+	/**
+	 * @throws Exception when routing is enabled or indices are by store, use getDocument(store, id, language, option)
+	 */
 	@Override
 	public Optional<Document> getDocument(Long id, String language, modules.commons.search.request.RequestOptions option)
 			throws Exception {
+		requireStore("get");
+		return getDocument(null, id, language, option);
+	}
+	
+	/**
+	 * Gets a product document of a store
+	 * When routing is enabled or indices are by store and store is null the document
+	 * is looked up with an ids query on all shards
+	 * @param store routing of the document
+	 */
+	public Optional<Document> getDocument(String store, Long id, String language, modules.commons.search.request.RequestOptions option)
+			throws Exception {
+		
+		if(storeUnknown(store)) {
+			org.opensearch.action.search.SearchRequest search = idsSearchRequest(productsIndices(language), Collections.singletonList(id));
+			org.opensearch.action.search.SearchResponse searchResponse = timed("getDocument", search.indices()[0], language, 
+					() -> client().search(search, searchClient.getLargeResponseOptions()));
+			return document(hits(searchResponse).get(String.valueOf(id)), id, option);
+		}
+		
 		GetRequest getRequest = new GetRequest(
-				productsIndexBuilder(language), 
+				productsIndexBuilder(store, language), 
 		        String.valueOf(id)); 
+		getRequest.routing(routing(store));
 		
-		GetResponse getResponse = this.searchClient.getClient().get(getRequest, RequestOptions.DEFAULT);
+		GetResponse getResponse = timed("getDocument", getRequest.index(), language, 
+				() -> client().get(getRequest, searchClient.getLargeResponseOptions()));
+
+		return document(getResponse, id, option);
+	
+	}
+	
+	private Optional<Document> document(GetResponse getResponse, Long id, modules.commons.search.request.RequestOptions option) throws Exception {
 
 		if (getResponse.isExists()) {
 			
 			
-			String index = getResponse.getIndex();
 			String documentId = getResponse.getId();
-			
-		    long version = getResponse.getVersion();
-		    String sourceAsString = getResponse.getSourceAsString();        
-		    Map<String, Object> sourceAsMap = getResponse.getSourceAsMap(); 
 
 		    /**
 		     * Map to Document
 		     */
-		    
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 			
-			Document doc = mapper.convertValue(sourceAsMap, Document.class);
+			Document doc = SourceReader.document(getResponse.getSourceAsBytesRef());
 			doc.setDocumentId(documentId);
 			
 		    return Optional.of(doc);
 		    
 		} else {
-			if(option == option.FAIL_ON_NOT_FOUNT) {
-				throw new Exception("Document with id [" + id + "] does not exist in products index");
-			}
-			return Optional.empty();
+			return notFound(id, option);
+		}
+	}
+	
+	private Optional<Document> document(SearchHit hit, Long id, modules.commons.search.request.RequestOptions option) throws Exception {
+		if(hit == null) {
+			return notFound(id, option);
+		}
+		Document doc = SourceReader.document(hit.getSourceRef());
+		doc.setDocumentId(hit.getId());
+		return Optional.of(doc);
+	}
+	
+	private Optional<Document> notFound(Long id, modules.commons.search.request.RequestOptions option) throws Exception {
+		if(option == modules.commons.search.request.RequestOptions.FAIL_ON_NOT_FOUNT) {
+			throw new Exception("Document with id [" + id + "] does not exist in products index");
 		}
+		return Optional.empty();
+	}
+	
+	private org.opensearch.action.search.SearchRequest idsSearchRequest(String[] indices, Collection<Long> ids) {
+		SearchSourceBuilder builder = new SearchSourceBuilder();
+		builder.query(idsQuery(ids));
+		builder.size(ids.size());
+		org.opensearch.action.search.SearchRequest search = new org.opensearch.action.search.SearchRequest(indices);
+		search.source(builder);
+		return search;
+	}
 	
+	private Map<String, SearchHit> hits(org.opensearch.action.search.SearchResponse searchResponse) {
+		Map<String, SearchHit> hits = new HashMap<String, SearchHit>();
+		for(SearchHit hit : searchResponse.getHits().getHits()) {
+			hits.put(hit.getId(), hit);
+		}
+		return hits;
 	}
 
 
+	/**
+	 * @throws Exception when routing is enabled or indices are by store, use getDocuments(store, ids, languages)
+	 */
 	@Override
 	public List<Optional<Document>> getDocument(Long id, List<String> languages,
 			modules.commons.search.request.RequestOptions option) throws Exception {
 		
 		Validate.notNull(id, "id cannot be null");
 		Validate.notEmpty(languages, "Languages cannot be empty");
+		requireStore("get");
+		
+		return multiGet(null, Collections.singletonList(id), languages, option).get(id);
+	}
+	
+	/**
+	 * Gets products documents of all ids in all languages in a single _mget request
+	 * @param ids
+	 * @param languages
+	 * @return documents by id, for each id one entry per language in languages order
+	 * @throws Exception when routing is enabled or indices are by store, use getDocuments(store, ids, languages)
+	 */
+	public Map<Long, List<Optional<Document>>> getDocuments(List<Long> ids, List<String> languages) throws Exception {
+		requireStore("get");
+		return getDocuments(null, ids, languages);
+	}
+	
+	/**
+	 * Gets products documents of a store
+	 * When routing is enabled or indices are by store and store is null documents
+	 * are looked up with an ids query per language on all shards
+	 * @param store routing of the documents
+	 */
+	public Map<Long, List<Optional<Document>>> getDocuments(String store, List<Long> ids, List<String> languages) throws Exception {
+		
+		Validate.notEmpty(ids, "ids cannot be empty");
+		Validate.notEmpty(languages, "Languages cannot be empty");
+		
+		return multiGet(store, ids, languages, null);
+	}
+	
+	private Map<Long, List<Optional<Document>>> multiGet(String store, List<Long> ids, List<String> languages, modules.commons.search.request.RequestOptions option) throws Exception {
+		
+		if(storeUnknown(store)) {
+			return searchIds(ids, languages, option);
+		}
+		
+		MultiGetRequest request = new MultiGetRequest();
+		for(Long id : ids) {
+			Validate.notNull(id, "id cannot be null");
+			for(String l : languages) {
+				request.add(new MultiGetRequest.Item(productsIndexBuilder(store, l), String.valueOf(id)).routing(routing(store)));
+			}
+		}
+		
+		MultiGetResponse response = timed("getDocument", productsIndexBuilder(store, languages.get(0)), String.join(",", languages).toLowerCase(), 
+				() -> client().mget(request, searchClient.getLargeResponseOptions()));
+		
+		//responses are in request order
+		MultiGetItemResponse[] items = response.getResponses();
+		Map<Long, List<Optional<Document>>> documents = new LinkedHashMap<Long, List<Optional<Document>>>();
+		int i = 0;
+		for(Long id : ids) {
+			List<Optional<Document>> languageDocuments = new ArrayList<Optional<Document>>();
+			for(String l : languages) {
+				MultiGetItemResponse item = items[i++];
+				if(item.isFailed()) {
+					if(option == modules.commons.search.request.RequestOptions.FAIL_ON_NOT_FOUNT) {
+						throw new Exception("Cannot get document [" + id + "] with language [" + l + "] " + item.getFailure().getMessage());
+					}
+					languageDocuments.add(Optional.empty());
+				} else {
+					languageDocuments.add(document(item.getResponse(), id, option));
+				}
+			}
+			documents.put(id, languageDocuments);
+		}
+		
+		return documents;
+	}
+	
+	private Map<Long, List<Optional<Document>>> searchIds(List<Long> ids, List<String> languages, modules.commons.search.request.RequestOptions option) throws Exception {
+		
+		List<Map<String, SearchHit>> languageHits = new ArrayList<Map<String, SearchHit>>();
+		for(String l : languages) {
+			org.opensearch.action.search.SearchRequest search = idsSearchRequest(productsIndices(l), ids);
+			org.opensearch.action.search.SearchResponse searchResponse = timed("getDocument", search.indices()[0], l, 
+					() -> client().search(search, searchClient.getLargeResponseOptions()));
+			languageHits.add(hits(searchResponse));
+		}
+		
+		Map<Long, List<Optional<Document>>> documents = new LinkedHashMap<Long, List<Optional<Document>>>();
+		for(Long id : ids) {
+			Validate.notNull(id, "id cannot be null");
+			List<Optional<Document>> languageDocuments = new ArrayList<Optional<Document>>();
+			for(Map<String, SearchHit> hits : languageHits) {
+				languageDocuments.add(document(hits.get(String.valueOf(id)), id, option));
+			}
+			documents.put(id, languageDocuments);
+		}
 		
-		List<Optional<Document>> getDocuments = languages.stream().map(l -> {
+		return documents;
+	}
+	
+	
+	/**
+	 * Non blocking api
+	 * Requests are sent with the client *Async methods, the returned futures
+	 * complete on the http client IO threads or on the retry scheduler
+	 * Failures are retried and recorded like the blocking api
+	 * Methods without store throw when routing is enabled or indices are by store
+	 */
+	
+	public CompletableFuture<SearchResponse> searchProductsAsync(SearchRequest searchRequest) throws Exception {
+		return searchProductsAsync(searchRequest, 0, properties.getSearch().getPageSize());
+	}
+	
+	public CompletableFuture<SearchResponse> searchProductsAsync(SearchRequest searchRequest, int from, int size) throws Exception {
+		return searchProductsAsync(searchRequest, from, size, defaultProjection(properties.getSearch().getProductsProjection()));
+	}
+	
+	public CompletableFuture<SearchResponse> searchProductsAsync(SearchRequest searchRequest, int from, int size, SourceProjection projection) throws Exception {
+		
+		Map<String, List<Aggregation>> facets = cachedFacets(searchRequest);
+		org.opensearch.action.search.SearchRequest search = productsSearchRequest(searchRequest, from, size, projection, facets == null);
+		
+		return timed("searchProducts", search.indices()[0], searchRequest.getLanguage(), 
+				(org.opensearch.action.search.SearchResponse r) -> productsResponse(searchRequest, r, facets),
+				listener -> client().searchAsync(search, searchClient.getLargeResponseOptions(), listener));
+	}
+	
+	public CompletableFuture<SearchResponse> searchKeywordsAsync(SearchRequest searchRequest) throws Exception {
+		return searchKeywordsAsync(searchRequest, defaultProjection(properties.getSearch().getKeywordsProjection()));
+	}
+	
+	public CompletableFuture<SearchResponse> searchKeywordsAsync(SearchRequest searchRequest, SourceProjection projection) throws Exception {
+		
+		SearchCache.Key key = keywordsKey(searchRequest, projection);
+		SearchResponse cached = cachedKeywords(key);
+		if(cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		
+		org.opensearch.action.search.SearchRequest search = keywordsSearchRequest(searchRequest, projection);
+		
+		return timed("searchKeywords", search.indices()[0], searchRequest.getLanguage(), 
+				(org.opensearch.action.search.SearchResponse r) -> keywordsResponse(searchRequest, r, key),
+				listener -> client().searchAsync(search, RequestOptions.DEFAULT, listener));
+	}
+	
+	public CompletableFuture<Void> indexAsync(IndexItem item) throws Exception {
+		
+		Validate.notNull(item, "Item must not be null");
+		Validate.notNull(item.getLanguage(),"Languge must not be null");
+		
+		if(searchClient == null) {
+			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before trying to index.");
+		}
+		searchClient.awaitProvisioning();
+		
+		IndexRequest productRequest = recorded(productRequest(item));
+		IndexRequest keywordRequest = recorded(keywordRequest(item));
+		
+		return CompletableFuture.allOf(
+				timed("index", productRequest.index(), item.getLanguage(), (IndexResponse r) -> null,
+						listener -> client().indexAsync(productRequest, RequestOptions.DEFAULT, listener)), 
+				timed("index", keywordRequest.index(), item.getLanguage(), (IndexResponse r) -> null,
+						listener -> client().indexAsync(keywordRequest, RequestOptions.DEFAULT, listener)))
+				.whenComplete((r, e) -> invalidate(item.getStore()));
+	}
+	
+	public CompletableFuture<Void> deleteAsync(List<String> languages, Long id) throws Exception {
+		requireStore("delete");
+		return deleteAsync(null, languages, id);
+	}
+	
+	public CompletableFuture<Void> deleteAsync(String store, List<String> languages, Long id) throws Exception {
+		
+		Validate.notNull(id, "id cannot be null");
+		Validate.notNull(languages, "languages cannot be null");
+		Validate.notEmpty(languages, "Languages cannot be empry");
+		
+		List<CompletableFuture<Void>> deletes = new ArrayList<CompletableFuture<Void>>();
+		for(String l : languages) {
+			String language = l.toLowerCase();
+			if(storeUnknown(store)) {
+				recorded(new DeletedIds(language, Collections.singletonList(id)));
+				DeleteByQueryRequest request = deleteByQueryRequest(language, Collections.singletonList(id));
+				deletes.add(timed("delete", request.indices()[0], language, (BulkByScrollResponse r) -> null,
+						listener -> client().deleteByQueryAsync(request, RequestOptions.DEFAULT, listener)));
+				continue;
+			}
+			for(String index : new String[] {productsIndexBuilder(store, language), keywordsIndexBuilder(store, language)}) {
+				DeleteRequest request = recorded(new DeleteRequest(index, String.valueOf(id)).routing(routing(store)));
+				deletes.add(timed("delete", index, language, (DeleteResponse r) -> null,
+						listener -> client().deleteAsync(request, RequestOptions.DEFAULT, listener)));
+			}
+		}
+		
+		return CompletableFuture.allOf(deletes.toArray(new CompletableFuture<?>[deletes.size()]))
+				.whenComplete((r, e) -> invalidate(store));
+	}
+	
+	public CompletableFuture<Optional<Document>> getDocumentAsync(Long id, String language, modules.commons.search.request.RequestOptions option) throws Exception {
+		requireStore("get");
+		return getDocumentAsync(null, id, language, option);
+	}
+	
+	public CompletableFuture<Optional<Document>> getDocumentAsync(String store, Long id, String language, modules.commons.search.request.RequestOptions option) throws Exception {
+		
+		if(storeUnknown(store)) {
+			org.opensearch.action.search.SearchRequest search = idsSearchRequest(productsIndices(language), Collections.singletonList(id));
+			return timed("getDocument", search.indices()[0], language, 
+					(org.opensearch.action.search.SearchResponse r) -> document(hits(r).get(String.valueOf(id)), id, option),
+					listener -> client().searchAsync(search, searchClient.getLargeResponseOptions(), listener));
+		}
+		
+		GetRequest getRequest = new GetRequest(
+				productsIndexBuilder(store, language), 
+		        String.valueOf(id)); 
+		getRequest.routing(routing(store));
+		
+		return timed("getDocument", getRequest.index(), language, (GetResponse r) -> document(r, id, option),
+				listener -> client().getAsync(getRequest, searchClient.getLargeResponseOptions(), listener));
+	}
+	
+	/**
+	 * Records latency, status and failures of a request to the cluster
+	 * each attempt is recorded, rejected and timed out requests are retried
+	 */
+	private <T> T timed(String operation, String index, String language, Callable<T> call) throws Exception {
+		if(searchClient == null) {
+			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before using the search module.");
+		}
+		return searchClient.getRetryPolicy().call(() -> {
+			long start = System.nanoTime();
 			try {
-				Optional<Document> d = this.getDocument(id, l, option);
-				return this.getDocument(id, l, option);
+				T response = call.call();
+				metrics.request(operation, index, language, System.nanoTime() - start, ResponseStatus.of(response));
+				return response;
 			} catch (Exception e) {
-				if(option == option.FAIL_ON_NOT_FOUNT) {
-					throw new RuntimeException("Cannot convert to document [" + id + "] with language [" + l + "]");
-				}
-				return null;
+				int status = ResponseStatus.of(e);
+				metrics.request(operation, index, language, System.nanoTime() - start, status);
+				metrics.failure(operation, index, language, status);
+				throw e;
 			}
-		}).collect(Collectors.toList());
-		return getDocuments;
+		});
+	}
+	
+	/**
+	 * Asynchronous counterpart, the request is sent again with a new listener on each attempt
+	 */
+	private <T, R> CompletableFuture<R> timed(String operation, String index, String language, 
+			FutureActionListener.ResponseMapper<T, R> mapper, AsyncRequest<T> request) throws Exception {
+		if(searchClient == null) {
+			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before using the search module.");
+		}
+		return searchClient.getRetryPolicy().callAsync(() -> {
+			long start = System.nanoTime();
+			FutureActionListener<T, R> listener = new FutureActionListener<>(mapper);
+			request.send(listener);
+			return listener.future().whenComplete((response, e) -> {
+				long duration = System.nanoTime() - start;
+				if(e == null) {
+					metrics.request(operation, index, language, duration, 200);
+				} else {
+					int status = ResponseStatus.of(e);
+					metrics.request(operation, index, language, duration, status);
+					metrics.failure(operation, index, language, status);
+				}
+			});
+		});
+	}
+	
+	@FunctionalInterface
+	private interface AsyncRequest<T> {
+		void send(ActionListener<T> listener) throws Exception;
+	}
+	
+	private RestHighLevelClient client() throws Exception {
+		if(searchClient == null) {
+			throw new Exception("OpenSearch client has not been initialized. Please run configure(SearchConfiguration) before using the search module.");
+		}
+		return searchClient.getClient();
 	}
 
     
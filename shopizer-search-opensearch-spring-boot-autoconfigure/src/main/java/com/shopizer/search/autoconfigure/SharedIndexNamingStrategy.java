@@ -0,0 +1,36 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * All stores share products_{lang} and keywords_{lang}
+ */
+public class SharedIndexNamingStrategy implements IndexNamingStrategy {
+
+	@Override
+	public String index(String prefix, String store, String language) {
+		return new StringBuilder().append(prefix).append(language).toString();
+	}
+
+	@Override
+	public List<String> indices(String prefix, String language) {
+		return Collections.singletonList(index(prefix, null, language));
+	}
+
+	@Override
+	public List<String> provisionedIndices(String prefix, String language) {
+		return Collections.singletonList(index(prefix, null, language));
+	}
+
+	@Override
+	public List<String> templatePatterns(String prefix, String language) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public boolean dependsOnStore() {
+		return false;
+	}
+
+}
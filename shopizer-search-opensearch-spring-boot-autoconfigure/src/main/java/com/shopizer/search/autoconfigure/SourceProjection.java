@@ -0,0 +1,58 @@
+package com.shopizer.search.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.collections.CollectionUtils;
+
+/**
+ * Fields of _source returned by a search
+ * Listing pages usually only need a few product fields,
+ * leaving out description, inventory and variants reduces response size and decoding
+ * 
+ * Can be configured as named profiles
+ * search.opensearch.search.projections.listing.includes=id,name,brand,category
+ */
+public class SourceProjection {
+	
+	private List<String> includes = new ArrayList<String>();
+	private List<String> excludes = new ArrayList<String>();
+	
+	public static SourceProjection includes(String... fields) {
+		SourceProjection projection = new SourceProjection();
+		projection.setIncludes(Arrays.asList(fields));
+		return projection;
+	}
+	
+	public static SourceProjection excludes(String... fields) {
+		SourceProjection projection = new SourceProjection();
+		projection.setExcludes(Arrays.asList(fields));
+		return projection;
+	}
+
+	public List<String> getIncludes() {
+		return includes;
+	}
+
+	public void setIncludes(List<String> includes) {
+		this.includes = includes;
+	}
+
+	public List<String> getExcludes() {
+		return excludes;
+	}
+
+	public void setExcludes(List<String> excludes) {
+		this.excludes = excludes;
+	}
+	
+	String[] includesArray() {
+		return CollectionUtils.isEmpty(includes) ? null : includes.toArray(new String[includes.size()]);
+	}
+	
+	String[] excludesArray() {
+		return CollectionUtils.isEmpty(excludes) ? null : excludes.toArray(new String[excludes.size()]);
+	}
+
+}
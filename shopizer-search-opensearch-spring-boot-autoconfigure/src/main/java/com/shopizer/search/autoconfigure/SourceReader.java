@@ -0,0 +1,46 @@
+package com.shopizer.search.autoconfigure;
+
+import java.io.IOException;
+
+import org.apache.lucene.util.BytesRef;
+import org.opensearch.common.bytes.BytesReference;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import modules.commons.search.request.Document;
+import modules.commons.search.request.SearchItem;
+
+/**
+ * Decodes _source bytes of hits and documents
+ * Readers are created once and shared, the source is parsed from
+ * the response buffer without building an intermediate Map
+ */
+final class SourceReader {
+
+	private final static ObjectMapper MAPPER = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	private final static ObjectReader SEARCH_ITEM_READER = MAPPER.readerFor(SearchItem.class);
+	private final static ObjectReader DOCUMENT_READER = MAPPER.readerFor(Document.class);
+
+	private SourceReader() {}
+
+	static SearchItem searchItem(BytesReference source) throws IOException {
+		return read(SEARCH_ITEM_READER, source);
+	}
+
+	static Document document(BytesReference source) throws IOException {
+		return read(DOCUMENT_READER, source);
+	}
+
+	private static <T> T read(ObjectReader reader, BytesReference source) throws IOException {
+		if(source == null) {
+			return null;
+		}
+		BytesRef bytes = source.toBytesRef();
+		return reader.readValue(bytes.bytes, bytes.offset, bytes.length);
+	}
+
+}
@@ -0,0 +1,293 @@
+package com.shopizer.search.autoconfigure;
+
+import java.io.Closeable;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.Validate;
+import org.opensearch.action.DocWriteRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.shopizer.search.autoconfigure.BulkResult.BulkItemFailure;
+
+/**
+ * Write behind queue for index and delete operations
+ *
+ * Pending writes are keyed by product id and language, a newer write replaces
+ * the pending one so a burst of updates on the same product results in a single write.
+ * Writes are sent through _bulk requests when flush-size writes are pending or every flush-interval.
+ *
+ * When max-pending writes are queued or being sent callers wait up to offer-timeout
+ * before the write is rejected
+ *
+ * Stores of the writes of a flush are notified once the flush completed
+ *
+ * Writes failed with a retryable status or not sent are queued again unless a newer write
+ * of the product is pending, other failed writes are recorded as writeBehind failures and dropped
+ */
+class WriteBehindQueue implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+	private final SearchClient client;
+	private final SearchConfigurationProperties.Bulk bulk;
+	private final SearchConfigurationProperties.WriteBehind configuration;
+	private final SearchMetrics metrics;
+	private final Consumer<String> flushed;
+
+	private final Map<String, Write> pending = new LinkedHashMap<String, Write>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition notFull = lock.newCondition();
+	private int inFlight = 0;
+
+	private final ScheduledExecutorService executor;
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+	private volatile boolean closed = false;
+
+	/**
+	 * @param flushed invoked with the store of flushed writes, null store when unknown
+	 */
+	WriteBehindQueue(SearchClient client, SearchConfigurationProperties.Bulk bulk, SearchConfigurationProperties.WriteBehind configuration, SearchMetrics metrics, Consumer<String> flushed) {
+		Validate.notNull(client, "SearchClient cannot be null");
+		Validate.notNull(bulk, "Bulk configuration cannot be null");
+		Validate.notNull(configuration, "WriteBehind configuration cannot be null");
+		Validate.notNull(metrics, "SearchMetrics cannot be null");
+		Validate.notNull(flushed, "Flushed listener cannot be null");
+		this.client = client;
+		this.bulk = bulk;
+		this.configuration = configuration;
+		this.metrics = metrics;
+		this.flushed = flushed;
+
+		this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "opensearch-write-behind");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.scheduleWithFixedDelay(this::scheduledFlush,
+				configuration.getFlushIntervalInMillis(), configuration.getFlushIntervalInMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Queues requests of a product in a language, replacing pending ones
+	 * @param store store of the product, null when unknown
+	 * @param id product id
+	 * @param language
+	 * @param requests products and keywords requests
+	 * @throws Exception when the queue stays full for offer-timeout
+	 * @throws IllegalStateException when the queue is closed
+	 */
+	void offer(String store, Long id, String language, List<DocWriteRequest<?>> requests) throws Exception {
+
+		String key = new StringBuilder().append(language).append(':').append(id).toString();
+		boolean flush = false;
+
+		lock.lockInterruptibly();
+		try {
+			closed();
+			if(!pending.containsKey(key)) {
+				long nanos = TimeUnit.MILLISECONDS.toNanos(configuration.getOfferTimeoutInMillis());
+				while(pending.size() + inFlight >= configuration.getMaxPending()) {
+					if(nanos <= 0) {
+						throw new Exception("Write behind queue is full, [" + configuration.getMaxPending() + "] writes pending");
+					}
+					nanos = notFull.awaitNanos(nanos);
+					closed();
+				}
+			}
+			pending.put(key, new Write(store, id, requests));
+			flush = pending.size() >= configuration.getFlushSize();
+		} finally {
+			lock.unlock();
+		}
+
+		if(flush && flushRequested.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::scheduledFlush);
+			} catch (RejectedExecutionException e) {
+				//closing, pending writes are sent by close
+				flushRequested.set(false);
+			}
+		}
+	}
+
+	private void closed() {
+		if(closed) {
+			throw new IllegalStateException("Write behind queue is closed");
+		}
+	}
+
+	/**
+	 * Sends all pending writes and waits for completion
+	 * @return BulkResult of the flush, writes queued again are not reported as failures
+	 */
+	synchronized BulkResult flush() throws Exception {
+
+		Map<String, Write> writes;
+		lock.lock();
+		try {
+			writes = new LinkedHashMap<String, Write>(pending);
+			pending.clear();
+			inFlight = writes.size();
+		} finally {
+			lock.unlock();
+		}
+
+		Set<String> stores = new HashSet<String>();
+		try {
+			if(writes.isEmpty()) {
+				return new BulkResult();
+			}
+			BulkResult result;
+			try {
+				BulkIndexer indexer = new BulkIndexer(client, bulk, metrics);
+				for(Write write : writes.values()) {
+					stores.add(write.store);
+					for(DocWriteRequest<?> request : write.requests) {
+						indexer.add(request);
+					}
+				}
+				result = indexer.awaitClose();
+			} catch (Exception e) {
+				//index and delete requests can be sent again
+				requeue(writes, writes.values().stream().map(w -> String.valueOf(w.id)).collect(Collectors.toSet()));
+				throw e;
+			}
+			return requeue(writes, result);
+		} finally {
+			stores.forEach(flushed);
+			lock.lock();
+			try {
+				inFlight = 0;
+				notFull.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	int size() {
+		lock.lock();
+		try {
+			return pending.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Queues again writes of failed documents with a retryable status
+	 * @return result without the failures of queued writes
+	 */
+	private BulkResult requeue(Map<String, Write> writes, BulkResult result) {
+
+		if(!result.hasFailures()) {
+			return result;
+		}
+
+		BulkResult flushed = new BulkResult();
+		flushed.success(result.getSuccessful());
+		Set<String> ids = new HashSet<String>();
+		//closing is decided under the lock, nothing is queued after close
+		lock.lock();
+		try {
+			for(BulkItemFailure failure : result.getFailures()) {
+				//status 0, the request did not reach the cluster
+				if(!closed && (failure.getStatus() == 0 || RetryPolicy.isRetryable(failure.getStatus()))) {
+					ids.add(failure.getId());
+				} else {
+					metrics.failure("writeBehind", failure.getIndex(), null, failure.getStatus());
+					flushed.failure(failure);
+				}
+			}
+			requeue(writes, ids);
+		} finally {
+			lock.unlock();
+		}
+		return flushed;
+	}
+
+	/**
+	 * Failed documents are identified by product id, writes of all languages of the product are queued again
+	 */
+	private void requeue(Map<String, Write> writes, Set<String> ids) {
+
+		int requeued = 0;
+		lock.lock();
+		try {
+			if(closed) {
+				return;
+			}
+			for(Map.Entry<String, Write> write : writes.entrySet()) {
+				if(ids.contains(String.valueOf(write.getValue().id)) && pending.putIfAbsent(write.getKey(), write.getValue()) == null) {
+					requeued++;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if(requeued > 0) {
+			LOGGER.warn("Write behind queued again [{}] failed writes", requeued);
+		}
+	}
+
+	private static class Write {
+
+		private final String store;
+		private final Long id;
+		private final List<DocWriteRequest<?>> requests;
+
+		Write(String store, Long id, List<DocWriteRequest<?>> requests) {
+			this.store = store;
+			this.id = id;
+			this.requests = requests;
+		}
+	}
+
+	private void scheduledFlush() {
+		flushRequested.set(false);
+		try {
+			BulkResult result = flush();
+			if(result.hasFailures()) {
+				LOGGER.error("Write behind dropped [{}] failed documents {}", result.getFailures().size(), result.getFailures());
+			}
+		} catch (Exception e) {
+			LOGGER.error("Write behind flush failed", e);
+		}
+	}
+
+	/**
+	 * Stops scheduled flushes and sends pending writes, failed writes are not queued again
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			closed = true;
+		} finally {
+			lock.unlock();
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(bulk.getTimeoutInSeconds(), TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		scheduledFlush();
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.xcontent.XContentType;
+
+import com.shopizer.search.autoconfigure.BulkResult.BulkItemFailure;
+
+/**
+ * Per document outcome of bulk requests
+ */
+public class BulkIndexerTest {
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		properties.getBulk().setTimeoutInSeconds(10);
+		properties.getRetry().setInitialBackoffInMillis(1);
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void mixedResponseReportsFailedItems() throws Exception {
+
+		server.fail("2", 400, "mapper_parsing_exception", "failed to parse field [price]", Integer.MAX_VALUE);
+		server.fail("3", 404, "index_not_found_exception", "no such index [products_fr]", Integer.MAX_VALUE);
+
+		BulkIndexer indexer = indexer();
+		indexer.add(index("products_en", 1L));
+		indexer.add(index("products_en", 2L));
+		indexer.add(index("products_fr", 3L));
+		indexer.add(index("products_en", 4L));
+		BulkResult result = indexer.awaitClose();
+
+		assertEquals(1, server.getRequests().size());
+		assertEquals(2, result.getSuccessful());
+		assertTrue(result.hasFailures());
+
+		List<BulkItemFailure> failures = result.getFailures();
+		assertEquals(2, failures.size());
+
+		BulkItemFailure parsing = failures.get(0);
+		assertEquals("products_en", parsing.getIndex());
+		assertEquals("2", parsing.getId());
+		assertEquals(400, parsing.getStatus());
+		assertTrue(parsing.getMessage().contains("failed to parse field [price]"));
+
+		BulkItemFailure missing = failures.get(1);
+		assertEquals("products_fr", missing.getIndex());
+		assertEquals("3", missing.getId());
+		assertEquals(404, missing.getStatus());
+		assertTrue(missing.getMessage().contains("no such index [products_fr]"));
+
+	}
+
+	@Test
+	public void retrySendsOnlyRejectedItems() throws Exception {
+
+		server.fail("2", 429, "rejected_execution_exception", "rejected", 1);
+
+		BulkIndexer indexer = indexer();
+		indexer.add(index("products_en", 1L));
+		indexer.add(index("products_en", 2L));
+		indexer.add(index("products_en", 3L));
+		BulkResult result = indexer.awaitClose();
+
+		assertEquals(2, server.getRequests().size());
+		assertEquals(6, server.getRequests().get(0).size());
+
+		//action and source of the rejected item
+		List<String> retry = server.getRequests().get(1);
+		assertEquals(2, retry.size());
+		assertTrue(retry.get(0).contains("\"_id\":\"2\""));
+		assertEquals("{\"id\":2}", retry.get(1));
+
+		assertEquals(3, result.getSuccessful());
+		assertFalse(result.hasFailures());
+
+	}
+
+	private BulkIndexer indexer() throws Exception {
+		return new BulkIndexer(server.searchClient(properties), properties.getBulk(), SearchMetrics.NOOP);
+	}
+
+	private IndexRequest index(String index, Long id) {
+		return new IndexRequest(index).id(String.valueOf(id)).source("{\"id\":" + id + "}", XContentType.JSON);
+	}
+
+}
@@ -0,0 +1,265 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.http.HttpHost;
+import org.opensearch.client.RestClient;
+import org.opensearch.client.RestHighLevelClient;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import modules.commons.search.configuration.SearchConfiguration;
+import modules.commons.search.configuration.SearchHost;
+
+/**
+ * In process http server answering _bulk requests, each item succeeds
+ * unless a failure is registered for its id
+ * Other requests get the responses registered for their method and path, 404 otherwise
+ * Lines of each bulk request and every request received are recorded
+ */
+class BulkStubServer implements AutoCloseable {
+
+	private final static Pattern ID = Pattern.compile("\"_id\":\"([^\"]*)\"");
+	private final static Pattern INDEX = Pattern.compile("\"_index\":\"([^\"]*)\"");
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final RestHighLevelClient client;
+	private final List<List<String>> requests = new CopyOnWriteArrayList<List<String>>();
+	private final Map<String, ItemFailure> failures = new ConcurrentHashMap<String, ItemFailure>();
+	private final Map<String, Deque<StubResponse>> responses = new ConcurrentHashMap<String, Deque<StubResponse>>();
+	private final List<Request> received = new CopyOnWriteArrayList<Request>();
+
+	BulkStubServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		this.executor = Executors.newFixedThreadPool(2);
+		this.server.setExecutor(executor);
+		this.server.createContext("/", this::handle);
+		this.server.start();
+		this.client = new RestHighLevelClient(RestClient.builder(new HttpHost(InetAddress.getLoopbackAddress(), server.getAddress().getPort(), "http")));
+	}
+
+	/**
+	 * SearchClient sending bulk requests to this server
+	 */
+	SearchClient searchClient(SearchConfigurationProperties properties) throws Exception {
+		SearchClient searchClient = mock(SearchClient.class);
+		when(searchClient.getClient()).thenReturn(client);
+		when(searchClient.getBulkThrottle()).thenReturn(new BulkThrottle(properties.getBulk(), properties.getAdaptiveBulk(), SearchMetrics.NOOP));
+		when(searchClient.getRetryPolicy()).thenReturn(new RetryPolicy(properties.getRetry()));
+		return searchClient;
+	}
+
+	/**
+	 * Module configuration pointing to this server, english only
+	 */
+	SearchConfiguration configuration() {
+		SearchHost host = new SearchHost();
+		host.setScheme("http");
+		host.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+		host.setPort(server.getAddress().getPort());
+
+		SearchConfiguration configuration = new SearchConfiguration();
+		configuration.setHosts(Collections.singletonList(host));
+		configuration.setLanguages(Collections.singletonList("en"));
+		configuration.getProductMappings().put("en", "{}");
+		configuration.getKeywordsMappings().put("en", "{}");
+		configuration.getSettings().put("en", "{}");
+		return configuration;
+	}
+
+	/**
+	 * Responses to a method and path are returned in registration order, the last one is repeated
+	 * A path ending with * matches paths starting with it when no exact path is registered
+	 */
+	void respond(String method, String path, int status, String body) {
+		responses.computeIfAbsent(method + " " + path, k -> new ConcurrentLinkedDeque<StubResponse>()).add(new StubResponse(status, body));
+	}
+
+	/**
+	 * Items with this id fail the given number of times
+	 */
+	void fail(String id, int status, String type, String reason, int times) {
+		failures.put(id, new ItemFailure(status, type, reason, times));
+	}
+
+	/**
+	 * Lines (action and source) of each bulk request received
+	 */
+	List<List<String>> getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Every request received, in order
+	 */
+	List<Request> getReceived() {
+		return received;
+	}
+
+	@Override
+	public void close() throws IOException {
+		client.close();
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String method = exchange.getRequestMethod();
+			String path = exchange.getRequestURI().getPath();
+			if(!path.endsWith("/_bulk")) {
+				byte[] content = exchange.getRequestBody().readAllBytes();
+				received.add(new Request(method, path, exchange.getRequestURI().getQuery(), new String(content, StandardCharsets.UTF_8)));
+				Deque<StubResponse> stubs = stubs(method + " " + path);
+				StubResponse response = null;
+				if(stubs != null) {
+					response = stubs.size() > 1 ? stubs.poll() : stubs.peek();
+				}
+				if(response == null) {
+					response = new StubResponse(404, "{\"error\":{\"type\":\"resource_not_found_exception\",\"reason\":\"no stub for " + method + " " + path + "\"},\"status\":404}");
+				}
+				send(exchange, response.status, response.body);
+				return;
+			}
+			List<String> lines = new ArrayList<String>();
+			boolean errors = false;
+			StringBuilder items = new StringBuilder();
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+				String line;
+				while((line = reader.readLine()) != null) {
+					lines.add(line);
+					String action = line.startsWith("{\"index\"") ? "index" : line.startsWith("{\"delete\"") ? "delete" : line.startsWith("{\"update\"") ? "update" : null;
+					if(action == null) {
+						continue;
+					}
+					Matcher id = ID.matcher(line);
+					String itemId = id.find() ? id.group(1) : "1";
+					Matcher index = INDEX.matcher(line);
+					String itemIndex = index.find() ? index.group(1) : "products_en";
+					if(items.length() > 0) {
+						items.append(',');
+					}
+					ItemFailure failure = failures.get(itemId);
+					if(failure != null && failure.times.getAndDecrement() > 0) {
+						errors = true;
+						items.append("{\"").append(action).append("\":{\"_index\":\"").append(itemIndex).append("\",\"_id\":\"").append(itemId)
+							.append("\",\"status\":").append(failure.status).append(",\"error\":{\"type\":\"").append(failure.type)
+							.append("\",\"reason\":\"").append(failure.reason).append("\"}}}");
+						continue;
+					}
+					items.append("{\"").append(action).append("\":{\"_index\":\"").append(itemIndex).append("\",\"_id\":\"").append(itemId)
+						.append("\",\"_version\":1,\"result\":\"").append("delete".equals(action) ? "deleted" : "updated").append("\",")
+						.append("\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},\"_seq_no\":1,\"_primary_term\":1,\"status\":200}}");
+				}
+			}
+			requests.add(lines);
+			received.add(new Request(method, path, exchange.getRequestURI().getQuery(), String.join("\n", lines)));
+			send(exchange, 200, "{\"took\":1,\"errors\":" + errors + ",\"items\":[" + items + "]}");
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private Deque<StubResponse> stubs(String route) {
+		Deque<StubResponse> stubs = responses.get(route);
+		if(stubs != null) {
+			return stubs;
+		}
+		for(Map.Entry<String, Deque<StubResponse>> prefix : responses.entrySet()) {
+			if(prefix.getKey().endsWith("*") && route.startsWith(prefix.getKey().substring(0, prefix.getKey().length() - 1))) {
+				return prefix.getValue();
+			}
+		}
+		return null;
+	}
+
+	private void send(HttpExchange exchange, int status, String content) throws IOException {
+		byte[] body = content.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+		if("HEAD".equals(exchange.getRequestMethod())) {
+			exchange.sendResponseHeaders(status, -1);
+			return;
+		}
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream os = exchange.getResponseBody()) {
+			os.write(body);
+		}
+	}
+
+	/**
+	 * Request received by the server
+	 */
+	static class Request {
+
+		final String method;
+		final String path;
+		final String query;
+		final String body;
+
+		Request(String method, String path, String query, String body) {
+			this.method = method;
+			this.path = path;
+			this.query = query;
+			this.body = body;
+		}
+
+		@Override
+		public String toString() {
+			return method + " " + path + (query != null ? "?" + query : "");
+		}
+
+	}
+
+	private static class StubResponse {
+
+		private final int status;
+		private final String body;
+
+		StubResponse(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+
+	}
+
+	private static class ItemFailure {
+
+		private final int status;
+		private final String type;
+		private final String reason;
+		private final AtomicInteger times;
+
+		ItemFailure(int status, String type, String reason, int times) {
+			this.status = status;
+			this.type = type;
+			this.reason = reason;
+			this.times = new AtomicInteger(times);
+		}
+
+	}
+
+}
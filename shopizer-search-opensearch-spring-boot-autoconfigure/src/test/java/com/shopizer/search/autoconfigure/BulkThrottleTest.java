@@ -0,0 +1,132 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Batch size and concurrency tuning from bulk completions
+ */
+public class BulkThrottleTest {
+
+	private final static long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+	private final static long SLOW = TimeUnit.SECONDS.toNanos(5);
+
+	private int publishedActions = 0;
+	private int publishedRequests = 0;
+
+	private final SearchMetrics metrics = new SearchMetrics() {
+		@Override
+		public void bulkLimits(int maxActions, int concurrentRequests) {
+			publishedActions = maxActions;
+			publishedRequests = concurrentRequests;
+		}
+	};
+
+	@Test
+	public void fixedLimitsWhenDisabled() {
+
+		BulkThrottle throttle = new BulkThrottle(bulk(1000, 2), new SearchConfigurationProperties.AdaptiveBulk(), metrics);
+		throttle.completed(System.nanoTime(), SLOW, true);
+
+		assertEquals(1000, throttle.getMaxActions());
+		assertEquals(2, throttle.getConcurrentRequests());
+
+	}
+
+	@Test
+	public void initialLimitsArePublished() {
+
+		new BulkThrottle(bulk(1000, 2), adaptive(), metrics);
+
+		assertEquals(1000, publishedActions);
+		assertEquals(2, publishedRequests);
+
+	}
+
+	@Test
+	public void increaseActionsThenConcurrency() {
+
+		SearchConfigurationProperties.AdaptiveBulk adaptive = adaptive();
+		adaptive.setMaxActions(1200);
+		BulkThrottle throttle = new BulkThrottle(bulk(1000, 2), adaptive, metrics);
+
+		throttle.completed(System.nanoTime(), FAST, false);
+		assertEquals(1100, throttle.getMaxActions());
+		throttle.completed(System.nanoTime(), FAST, false);
+		assertEquals(1200, throttle.getMaxActions());
+		assertEquals(2, throttle.getConcurrentRequests());
+
+		//at maximum batch size
+		throttle.completed(System.nanoTime(), FAST, false);
+		assertEquals(1200, throttle.getMaxActions());
+		assertEquals(3, throttle.getConcurrentRequests());
+		assertEquals(1200, publishedActions);
+		assertEquals(3, publishedRequests);
+
+	}
+
+	@Test
+	public void decreaseOnSlowOrRejected() {
+
+		BulkThrottle throttle = new BulkThrottle(bulk(1000, 4), adaptive(), metrics);
+
+		throttle.completed(System.nanoTime(), SLOW, false);
+		assertEquals(500, throttle.getMaxActions());
+		assertEquals(2, throttle.getConcurrentRequests());
+
+		throttle.completed(System.nanoTime(), FAST, true);
+		assertEquals(250, throttle.getMaxActions());
+		assertEquals(1, throttle.getConcurrentRequests());
+		assertEquals(250, publishedActions);
+		assertEquals(1, publishedRequests);
+
+	}
+
+	@Test
+	public void decreaseBoundedByMinimum() {
+
+		BulkThrottle throttle = new BulkThrottle(bulk(150, 1), adaptive(), metrics);
+
+		throttle.completed(System.nanoTime(), SLOW, true);
+		assertEquals(100, throttle.getMaxActions());
+		assertEquals(1, throttle.getConcurrentRequests());
+
+	}
+
+	@Test
+	public void concurrentSlowResponsesDecreaseOnce() {
+
+		BulkThrottle throttle = new BulkThrottle(bulk(1000, 4), adaptive(), metrics);
+
+		//requests sent together before the first slow response
+		long sent = System.nanoTime();
+		throttle.completed(sent, SLOW, false);
+		throttle.completed(sent, SLOW, true);
+		throttle.completed(sent, SLOW, false);
+		assertEquals(500, throttle.getMaxActions());
+		assertEquals(2, throttle.getConcurrentRequests());
+
+		//sent with the decreased limits
+		throttle.completed(System.nanoTime(), SLOW, false);
+		assertEquals(250, throttle.getMaxActions());
+		assertEquals(1, throttle.getConcurrentRequests());
+
+	}
+
+	private SearchConfigurationProperties.Bulk bulk(int maxActions, int concurrentRequests) {
+		SearchConfigurationProperties.Bulk bulk = new SearchConfigurationProperties.Bulk();
+		bulk.setMaxActions(maxActions);
+		bulk.setConcurrentRequests(concurrentRequests);
+		return bulk;
+	}
+
+	private SearchConfigurationProperties.AdaptiveBulk adaptive() {
+		SearchConfigurationProperties.AdaptiveBulk adaptive = new SearchConfigurationProperties.AdaptiveBulk();
+		adaptive.setEnabled(true);
+		return adaptive;
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.nested.Nested;
+import org.opensearch.search.aggregations.bucket.nested.NestedAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.nested.ReverseNested;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+
+import modules.commons.search.request.Aggregation;
+
+/**
+ * Terms aggregations built from configured sizes and buckets read back
+ */
+public class FacetAggregationsTest {
+
+	@Test
+	public void buildUsesConfiguredSizes() {
+
+		SearchConfigurationProperties.Facets configuration = new SearchConfigurationProperties.Facets();
+		configuration.setSize(5);
+		configuration.setMinDocCount(2);
+		configuration.getSizes().put("category", 50);
+
+		SearchSourceBuilder source = new SearchSourceBuilder();
+		FacetAggregations.build(source, Arrays.asList("brand", "category", "variants.size"), configuration);
+
+		Map<String, AggregationBuilder> aggregations = new HashMap<String, AggregationBuilder>();
+		for(AggregationBuilder aggregation : source.aggregations().getAggregatorFactories()) {
+			aggregations.put(aggregation.getName(), aggregation);
+		}
+		assertEquals(3, aggregations.size());
+
+		TermsAggregationBuilder brand = (TermsAggregationBuilder)aggregations.get("brand");
+		assertEquals("brand", brand.field());
+		assertEquals(5, brand.size());
+		assertEquals(2, brand.minDocCount());
+
+		TermsAggregationBuilder category = (TermsAggregationBuilder)aggregations.get("category");
+		assertEquals(50, category.size());
+
+		NestedAggregationBuilder variants = (NestedAggregationBuilder)aggregations.get("variants.size");
+		assertEquals("variants", variants.path());
+		TermsAggregationBuilder size = (TermsAggregationBuilder)variants.getSubAggregations().iterator().next();
+		assertEquals("variants.size", size.field());
+		assertEquals(5, size.size());
+		assertEquals("products", size.getSubAggregations().iterator().next().getName());
+
+	}
+
+	@Test
+	public void readBuckets() {
+
+		Terms brand = terms("brand", bucket("Nike", 3, null), bucket("Asics", 1, null));
+
+		List<Aggregation> buckets = FacetAggregations.read(new Aggregations(Collections.singletonList(brand)), "brand");
+
+		assertEquals(2, buckets.size());
+		assertEquals("Nike", buckets.get(0).getName());
+		assertEquals(3L, (long)buckets.get(0).getCount());
+		assertEquals("Asics", buckets.get(1).getName());
+		assertEquals(1L, (long)buckets.get(1).getCount());
+
+	}
+
+	@Test
+	public void readVariantBucketsCountsProducts() {
+
+		//3 variants of size L in 2 products
+		ReverseNested products = mock(ReverseNested.class);
+		when(products.getName()).thenReturn("products");
+		when(products.getDocCount()).thenReturn(2L);
+
+		Terms size = terms("variants.size", bucket("L", 3, products));
+
+		Nested nested = mock(Nested.class);
+		when(nested.getName()).thenReturn("variants.size");
+		when(nested.getAggregations()).thenReturn(new Aggregations(Collections.singletonList(size)));
+
+		List<Aggregation> buckets = FacetAggregations.read(new Aggregations(Collections.singletonList(nested)), "variants.size");
+
+		assertEquals(1, buckets.size());
+		assertEquals("L", buckets.get(0).getName());
+		assertEquals(2L, (long)buckets.get(0).getCount());
+
+	}
+
+	@Test
+	public void readMissingAggregation() {
+
+		assertTrue(FacetAggregations.read(null, "brand").isEmpty());
+		assertTrue(FacetAggregations.read(new Aggregations(new ArrayList<Terms>()), "brand").isEmpty());
+
+	}
+
+	private Terms terms(String name, Terms.Bucket... buckets) {
+		Terms terms = mock(Terms.class);
+		when(terms.getName()).thenReturn(name);
+		doReturn(Arrays.asList(buckets)).when(terms).getBuckets();
+		return terms;
+	}
+
+	private Terms.Bucket bucket(String key, long count, ReverseNested products) {
+		Terms.Bucket bucket = mock(Terms.Bucket.class);
+		when(bucket.getKeyAsString()).thenReturn(key);
+		when(bucket.getDocCount()).thenReturn(count);
+		if(products != null) {
+			when(bucket.getAggregations()).thenReturn(new Aggregations(Collections.singletonList(products)));
+		}
+		return bucket;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.opensearch.common.bytes.BytesReference;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import modules.commons.search.request.IndexItem;
+
+/**
+ * Serialized product and keyword documents
+ */
+public class IndexItemSerializerTest {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void productSkipsNullFields() throws Exception {
+
+		IndexItem item = new IndexItem();
+		item.setId(1L);
+		item.setLanguage("en");
+		item.setStore("default");
+		item.setName("Racing Zoom Fly 5");
+
+		Map<String,String> variant = new HashMap<String,String>();
+		variant.put("size", "S");
+		List<Map<String,String>> variants = new ArrayList<Map<String,String>>();
+		variants.add(variant);
+		item.setVariants(variants);
+
+		Map<String, Object> document = mapper.readValue(
+				BytesReference.bytes(IndexItemSerializer.product(item)).utf8ToString(), Map.class);
+
+		assertEquals(1, ((Number)document.get("id")).intValue());
+		assertEquals("Racing Zoom Fly 5", document.get("name"));
+		assertEquals("S", ((List<Map<String,String>>)document.get("variants")).get(0).get("size"));
+		assertFalse(document.containsKey("description"));
+		assertFalse(document.containsKey("brand"));
+
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void keyword() throws Exception {
+
+		IndexItem item = new IndexItem();
+		item.setId(1L);
+		item.setStore("default");
+		item.setName("Racing Zoom Fly 5");
+
+		Map<String, Object> document = mapper.readValue(
+				BytesReference.bytes(IndexItemSerializer.keyword(item)).utf8ToString(), Map.class);
+
+		assertEquals(2, document.size());
+		assertEquals("default", document.get("store"));
+		assertEquals("Racing Zoom Fly 5", document.get("suggestions"));
+
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Index names of the built in layouts
+ */
+public class IndexNamingStrategyTest {
+
+	@Test
+	public void shared() {
+
+		IndexNamingStrategy strategy = new SharedIndexNamingStrategy();
+
+		assertEquals("products_en", strategy.index(IndexNamingStrategy.PRODUCTS, "DEFAULT", "en"));
+		assertEquals("keywords_en", strategy.index(IndexNamingStrategy.KEYWORDS, null, "en"));
+		assertEquals(Collections.singletonList("products_en"), strategy.indices(IndexNamingStrategy.PRODUCTS, "en"));
+		assertEquals(Collections.singletonList("products_en"), strategy.provisionedIndices(IndexNamingStrategy.PRODUCTS, "en"));
+		assertTrue(strategy.templatePatterns(IndexNamingStrategy.PRODUCTS, "en").isEmpty());
+		assertFalse(strategy.dependsOnStore());
+
+	}
+
+	@Test
+	public void perStore() {
+
+		IndexNamingStrategy strategy = new PerStoreIndexNamingStrategy();
+
+		assertEquals("products_default_en", strategy.index(IndexNamingStrategy.PRODUCTS, "DEFAULT", "en"));
+		//lower case without special characters
+		assertEquals("keywords_my_store-1_fr", strategy.index(IndexNamingStrategy.KEYWORDS, "My Store-1", "fr"));
+		assertEquals(Collections.singletonList("products_*_en"), strategy.indices(IndexNamingStrategy.PRODUCTS, "en"));
+		assertTrue(strategy.provisionedIndices(IndexNamingStrategy.PRODUCTS, "en").isEmpty());
+		assertEquals(Collections.singletonList("products_*_en"), strategy.templatePatterns(IndexNamingStrategy.PRODUCTS, "en"));
+		assertTrue(strategy.dependsOnStore());
+
+		assertThrows(NullPointerException.class, () -> strategy.index(IndexNamingStrategy.PRODUCTS, null, "en"));
+
+	}
+
+	@Test
+	public void hybrid() {
+
+		IndexNamingStrategy strategy = new HybridIndexNamingStrategy(Arrays.asList("LARGE"));
+
+		assertEquals("products_large_en", strategy.index(IndexNamingStrategy.PRODUCTS, "large", "en"));
+		assertEquals("products_en", strategy.index(IndexNamingStrategy.PRODUCTS, "DEFAULT", "en"));
+		assertEquals("products_en", strategy.index(IndexNamingStrategy.PRODUCTS, null, "en"));
+		assertEquals(Arrays.asList("products_en", "products_*_en"), strategy.indices(IndexNamingStrategy.PRODUCTS, "en"));
+		assertEquals(Collections.singletonList("products_en"), strategy.provisionedIndices(IndexNamingStrategy.PRODUCTS, "en"));
+		assertEquals(Collections.singletonList("products_*_en"), strategy.templatePatterns(IndexNamingStrategy.PRODUCTS, "en"));
+		assertTrue(strategy.dependsOnStore());
+
+	}
+
+	@Test
+	public void fromLayout() {
+
+		SearchConfigurationProperties.IndexLayout layout = new SearchConfigurationProperties.IndexLayout();
+		assertTrue(IndexNamingStrategy.of(layout) instanceof SharedIndexNamingStrategy);
+
+		layout.setType(SearchConfigurationProperties.IndexLayoutType.PER_STORE);
+		assertTrue(IndexNamingStrategy.of(layout) instanceof PerStoreIndexNamingStrategy);
+
+		layout.setType(SearchConfigurationProperties.IndexLayoutType.HYBRID);
+		layout.setDedicatedStores(Arrays.asList("large"));
+		IndexNamingStrategy hybrid = IndexNamingStrategy.of(layout);
+		assertTrue(hybrid instanceof HybridIndexNamingStrategy);
+		assertEquals("products_large_en", hybrid.index(IndexNamingStrategy.PRODUCTS, "large", "en"));
+
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Meter.Id;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Tags and latency distribution of recorded meters
+ */
+public class MicrometerSearchMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	public void metersTaggedWithLogicalIndex() {
+
+		MicrometerSearchMetrics metrics = new MicrometerSearchMetrics(registry);
+		metrics.request("searchProducts", "products_en", "en", 1000, 200);
+		metrics.request("searchProducts", "products_en_20240101000000", "en", 1000, 200);
+		metrics.request("searchProducts", "products_default_en", "en", 1000, 200);
+		metrics.failure("bulk", "keywords_fr", null, 429);
+		metrics.hits("keywords_default_en", "en", 5);
+
+		assertEquals(3, registry.get("shopizer.search.requests").tag("index", "products").timer().count());
+		assertEquals(1, registry.get("shopizer.search.failures").tag("index", "keywords").tag("language", "none").counter().count());
+		assertEquals(1, registry.get("shopizer.search.hits").tag("index", "keywords").summary().count());
+
+		//api endpoints are kept
+		metrics.request("bulk", "_bulk", null, 1000, 200);
+		assertEquals(1, registry.get("shopizer.search.requests").tag("index", "_bulk").timer().count());
+
+	}
+
+	@Test
+	public void percentileHistogramOptIn() {
+
+		assertFalse(percentileHistogram(false));
+		assertTrue(percentileHistogram(true));
+
+	}
+
+	/**
+	 * Histogram configuration of the requests timer, the simple registry does not publish buckets
+	 */
+	private boolean percentileHistogram(boolean enabled) {
+		AtomicBoolean histogram = new AtomicBoolean();
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		registry.config().meterFilter(new MeterFilter() {
+			@Override
+			public DistributionStatisticConfig configure(Id id, DistributionStatisticConfig config) {
+				histogram.set(Boolean.TRUE.equals(config.isPercentileHistogram()));
+				return config;
+			}
+		});
+		new MicrometerSearchMetrics(registry, enabled).request("searchProducts", "products_en", "en", TimeUnit.MILLISECONDS.toNanos(5), 200);
+		return histogram.get();
+	}
+
+}
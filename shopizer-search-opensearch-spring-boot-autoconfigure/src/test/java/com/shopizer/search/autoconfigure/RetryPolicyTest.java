@@ -0,0 +1,193 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.rest.RestStatus;
+
+/**
+ * Retryable failures, backoff and retry budget
+ */
+public class RetryPolicyTest {
+
+	@Test
+	public void retryableStatus() {
+
+		assertTrue(RetryPolicy.isRetryable(429));
+		assertTrue(RetryPolicy.isRetryable(502));
+		assertTrue(RetryPolicy.isRetryable(503));
+		assertTrue(RetryPolicy.isRetryable(504));
+		assertFalse(RetryPolicy.isRetryable(400));
+		assertFalse(RetryPolicy.isRetryable(404));
+		assertFalse(RetryPolicy.isRetryable(409));
+		assertFalse(RetryPolicy.isRetryable(500));
+
+	}
+
+	@Test
+	public void retryableFailures() {
+
+		assertTrue(RetryPolicy.isRetryable(new OpenSearchStatusException("rejected", RestStatus.TOO_MANY_REQUESTS)));
+		assertTrue(RetryPolicy.isRetryable(new CompletionException(new OpenSearchStatusException("unavailable", RestStatus.SERVICE_UNAVAILABLE))));
+		assertTrue(RetryPolicy.isRetryable(new IOException(new SocketTimeoutException("read timed out"))));
+		assertFalse(RetryPolicy.isRetryable(new OpenSearchStatusException("bad request", RestStatus.BAD_REQUEST)));
+		assertFalse(RetryPolicy.isRetryable(new IllegalArgumentException("invalid")));
+
+	}
+
+	@Test
+	public void attemptsLimitedByMaxRetries() {
+
+		SearchConfigurationProperties.Retry configuration = new SearchConfigurationProperties.Retry();
+		configuration.setMaxRetries(2);
+		RetryPolicy policy = new RetryPolicy(configuration);
+
+		assertTrue(policy.allowRetry(1));
+		assertTrue(policy.allowRetry(2));
+		assertFalse(policy.allowRetry(3));
+
+	}
+
+	@Test
+	public void noRetryWhenDisabled() {
+
+		SearchConfigurationProperties.Retry configuration = new SearchConfigurationProperties.Retry();
+		configuration.setEnabled(false);
+
+		assertFalse(new RetryPolicy(configuration).allowRetry(1));
+
+	}
+
+	@Test
+	public void budgetSharedByRequests() throws Exception {
+
+		SearchConfigurationProperties.Retry configuration = new SearchConfigurationProperties.Retry();
+		configuration.setBudget(2);
+		configuration.setBudgetWindowInMillis(100);
+		RetryPolicy policy = new RetryPolicy(configuration);
+
+		assertTrue(policy.allowRetry(1));
+		assertTrue(policy.allowRetry(1));
+		assertFalse(policy.allowRetry(1));
+
+		//next window
+		Thread.sleep(150);
+		assertTrue(policy.allowRetry(1));
+
+	}
+
+	@Test
+	public void backoffWithinCeiling() {
+
+		SearchConfigurationProperties.Retry configuration = new SearchConfigurationProperties.Retry();
+		configuration.setInitialBackoffInMillis(50);
+		configuration.setMaxBackoffInMillis(300);
+		RetryPolicy policy = new RetryPolicy(configuration);
+
+		for(int i = 0; i < 100; i++) {
+			long first = policy.backoffInMillis(1);
+			assertTrue(first >= 0 && first <= 50);
+			long third = policy.backoffInMillis(3);
+			assertTrue(third >= 0 && third <= 200);
+			//capped
+			long tenth = policy.backoffInMillis(10);
+			assertTrue(tenth >= 0 && tenth <= 300);
+		}
+
+	}
+
+	@Test
+	public void callRetriesRetryableFailures() throws Exception {
+
+		SearchConfigurationProperties.Retry configuration = new SearchConfigurationProperties.Retry();
+		configuration.setInitialBackoffInMillis(1);
+		RetryPolicy policy = new RetryPolicy(configuration);
+
+		AtomicInteger calls = new AtomicInteger();
+		String result = policy.call(() -> {
+			if(calls.incrementAndGet() < 3) {
+				throw new OpenSearchStatusException("rejected", RestStatus.TOO_MANY_REQUESTS);
+			}
+			return "ok";
+		});
+
+		assertEquals("ok", result);
+		assertEquals(3, calls.get());
+
+	}
+
+	@Test
+	public void callFailsOnOtherFailures() {
+
+		RetryPolicy policy = new RetryPolicy(new SearchConfigurationProperties.Retry());
+
+		AtomicInteger calls = new AtomicInteger();
+		OpenSearchStatusException failure = new OpenSearchStatusException("bad request", RestStatus.BAD_REQUEST);
+		Exception e = assertThrows(Exception.class, () -> policy.call(() -> {
+			calls.incrementAndGet();
+			throw failure;
+		}));
+
+		assertSame(failure, e);
+		assertEquals(1, calls.get());
+
+	}
+
+	@Test
+	public void callAsyncRetriesRetryableFailures() throws Exception {
+
+		SearchConfigurationProperties.Retry configuration = new SearchConfigurationProperties.Retry();
+		configuration.setInitialBackoffInMillis(1);
+		RetryPolicy policy = new RetryPolicy(configuration);
+
+		AtomicInteger calls = new AtomicInteger();
+		CompletableFuture<String> result = policy.callAsync(() -> {
+			CompletableFuture<String> future = new CompletableFuture<String>();
+			if(calls.incrementAndGet() < 3) {
+				future.completeExceptionally(new OpenSearchStatusException("unavailable", RestStatus.SERVICE_UNAVAILABLE));
+			} else {
+				future.complete("ok");
+			}
+			return future;
+		});
+
+		assertEquals("ok", result.get(10, TimeUnit.SECONDS));
+		assertEquals(3, calls.get());
+		policy.close();
+
+	}
+
+	@Test
+	public void callAsyncFailsOnOtherFailures() {
+
+		RetryPolicy policy = new RetryPolicy(new SearchConfigurationProperties.Retry());
+
+		AtomicInteger calls = new AtomicInteger();
+		OpenSearchStatusException failure = new OpenSearchStatusException("bad request", RestStatus.BAD_REQUEST);
+		CompletableFuture<String> result = policy.callAsync(() -> {
+			calls.incrementAndGet();
+			CompletableFuture<String> future = new CompletableFuture<String>();
+			future.completeExceptionally(failure);
+			return future;
+		});
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+		assertSame(failure, e.getCause());
+		assertEquals(1, calls.get());
+
+	}
+
+}
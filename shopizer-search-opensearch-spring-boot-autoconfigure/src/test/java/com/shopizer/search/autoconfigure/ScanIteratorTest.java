@@ -0,0 +1,85 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.shopizer.search.autoconfigure.BulkStubServer.Request;
+
+import modules.commons.search.request.SearchItem;
+
+/**
+ * Paging of a whole index with a point in time and search_after
+ */
+public class ScanIteratorTest {
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+	private SearchModuleImpl module;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		properties.getProvisioning().setEnabled(false);
+		properties.getScan().setPageSize(2);
+		module = new SearchModuleImpl(properties);
+		module.configure(server.configuration());
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		module.close();
+		server.close();
+	}
+
+	@Test
+	public void pagesUntilAShortPage() throws Exception {
+
+		server.respond("POST", "/products_en/_search/point_in_time", 200,
+				"{\"pit_id\":\"pit-1\",\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},\"creation_time\":1700000000000}");
+		server.respond("POST", "/_search", 200, page(hit(1L, 0), hit(2L, 1)));
+		server.respond("POST", "/_search", 200, page(hit(3L, 0)));
+		server.respond("DELETE", "/_search/point_in_time", 200, "{\"pits\":[{\"pit_id\":\"pit-1\",\"successful\":true}]}");
+
+		List<Long> ids;
+		try(Stream<SearchItem> products = module.scanProducts("en", null)) {
+			ids = products.map(SearchItem::getId).collect(Collectors.toList());
+		}
+
+		assertEquals(Arrays.asList(1L, 2L, 3L), ids);
+
+		List<Request> searches = server.getReceived().stream().filter(r -> "/_search".equals(r.path)).collect(Collectors.toList());
+		assertEquals(2, searches.size());
+		for(Request search : searches) {
+			assertTrue(search.body.contains("\"pit\":{\"id\":\"pit-1\""));
+			assertTrue(search.body.contains("{\"_doc\":{\"order\":\"asc\"}},{\"id\":{\"order\":\"asc\"}}"));
+		}
+		assertFalse(searches.get(0).body.contains("search_after"));
+		//sort values of the last hit of the first page
+		assertTrue(searches.get(1).body.contains("\"search_after\":[1,2]"));
+
+		//point in time released after the last page
+		assertEquals(1, server.getReceived().stream().filter(r -> "DELETE".equals(r.method)).count());
+
+	}
+
+	private String page(String... hits) {
+		return "{\"pit_id\":\"pit-1\",\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+				+ "\"hits\":{\"max_score\":null,\"hits\":[" + String.join(",", hits) + "]}}";
+	}
+
+	private String hit(Long id, int doc) {
+		return "{\"_index\":\"products_en\",\"_id\":\"" + id + "\",\"_score\":null,"
+				+ "\"_source\":{\"id\":" + id + ",\"name\":\"product " + id + "\"},\"sort\":[" + doc + "," + id + "]}";
+	}
+
+}
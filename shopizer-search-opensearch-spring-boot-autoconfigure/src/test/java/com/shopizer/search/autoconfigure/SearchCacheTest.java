@@ -0,0 +1,135 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Eviction, expiry and invalidation of cached search results
+ */
+public class SearchCacheTest {
+
+	private int hits = 0;
+	private int misses = 0;
+
+	private final SearchMetrics metrics = new SearchMetrics() {
+		@Override
+		public void cache(String cache, boolean hit) {
+			if(hit) {
+				hits++;
+			} else {
+				misses++;
+			}
+		}
+	};
+
+	private SearchCache<String> cache = null;
+
+	@AfterEach
+	public void close() {
+		if(cache != null) {
+			cache.close();
+		}
+	}
+
+	@Test
+	public void hitAndMiss() {
+
+		cache = new SearchCache<String>("test", 10, 60, 0, metrics);
+		SearchCache.Key key = new SearchCache.Key("DEFAULT", "shoes");
+
+		assertNull(cache.get(key));
+		cache.put(key, "results");
+		//store is case insensitive
+		assertEquals("results", cache.get(new SearchCache.Key("default", "shoes")));
+		assertNull(cache.get(new SearchCache.Key("default", "boots")));
+
+		assertEquals(1, hits);
+		assertEquals(2, misses);
+
+	}
+
+	@Test
+	public void leastRecentlyUsedEvicted() {
+
+		cache = new SearchCache<String>("test", 2, 60, 0, metrics);
+		SearchCache.Key first = new SearchCache.Key("default", "first");
+		SearchCache.Key second = new SearchCache.Key("default", "second");
+		SearchCache.Key third = new SearchCache.Key("default", "third");
+
+		cache.put(first, "1");
+		cache.put(second, "2");
+		//first becomes most recently used
+		cache.get(first);
+		cache.put(third, "3");
+
+		assertEquals("1", cache.get(first));
+		assertNull(cache.get(second));
+		assertEquals("3", cache.get(third));
+
+	}
+
+	@Test
+	public void expiredAfterTtl() {
+
+		cache = new SearchCache<String>("test", 10, 0, 0, metrics);
+		SearchCache.Key key = new SearchCache.Key("default", "shoes");
+
+		cache.put(key, "results");
+
+		assertNull(cache.get(key));
+
+	}
+
+	@Test
+	public void invalidateStore() {
+
+		cache = new SearchCache<String>("test", 10, 60, 0, metrics);
+		SearchCache.Key store = new SearchCache.Key("default", "shoes");
+		SearchCache.Key other = new SearchCache.Key("other", "shoes");
+
+		cache.put(store, "1");
+		cache.put(other, "2");
+		cache.invalidate("DEFAULT");
+
+		assertNull(cache.get(store));
+		assertEquals("2", cache.get(other));
+
+		cache.invalidate(null);
+		assertNull(cache.get(other));
+
+	}
+
+	@Test
+	public void invalidateAgainAfterRefreshDelay() throws Exception {
+
+		cache = new SearchCache<String>("test", 10, 60, 100, metrics);
+		SearchCache.Key key = new SearchCache.Key("default", "shoes");
+
+		cache.invalidate("default");
+		//searched before the write was refreshed
+		cache.put(key, "stale");
+		assertEquals("stale", cache.get(key));
+
+		Thread.sleep(500);
+		assertNull(cache.get(key));
+
+	}
+
+	@Test
+	public void invalidateAfterClose() {
+
+		cache = new SearchCache<String>("test", 10, 60, 100, metrics);
+		SearchCache.Key key = new SearchCache.Key("default", "shoes");
+
+		cache.put(key, "results");
+		cache.close();
+		cache.invalidate("default");
+
+		assertNull(cache.get(key));
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Indices and templates created at startup
+ */
+public class SearchClientProvisioningTest {
+
+	private final static String ACKNOWLEDGED = "{\"acknowledged\":true}";
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+	private SearchModuleImpl module;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		if(module != null) {
+			module.close();
+		}
+		server.close();
+	}
+
+	@Test
+	public void missingIndicesOfTheLayoutCreated() throws Exception {
+
+		//products_en is an alias of a reindexed index
+		server.respond("GET", "/products_en,keywords_en", 200,
+				"{\"products_en_20240101000000\":{\"aliases\":{\"products_en\":{}},\"mappings\":{},\"settings\":{}}}");
+		server.respond("PUT", "/keywords_en", 200, "{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"keywords_en\"}");
+
+		configure();
+
+		assertEquals(Arrays.asList("GET /products_en,keywords_en", "PUT /keywords_en"), requests());
+
+	}
+
+	@Test
+	public void storeIndicesOnlyGetTemplates() throws Exception {
+
+		properties.getIndexLayout().setType(SearchConfigurationProperties.IndexLayoutType.PER_STORE);
+		server.respond("PUT", "/_index_template/products_store_en", 200, ACKNOWLEDGED);
+		server.respond("PUT", "/_index_template/keywords_store_en", 200, ACKNOWLEDGED);
+
+		configure();
+
+		//no index to look up
+		assertEquals(Arrays.asList("PUT /_index_template/keywords_store_en", "PUT /_index_template/products_store_en"),
+				requests().stream().sorted().collect(Collectors.toList()));
+
+	}
+
+	private void configure() throws Exception {
+		module = new SearchModuleImpl(properties);
+		module.configure(server.configuration());
+	}
+
+	private List<String> requests() {
+		return server.getReceived().stream().map(r -> r.method + " " + r.path).collect(Collectors.toList());
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.OpenSearchStatusException;
+
+import modules.commons.search.request.IndexItem;
+
+/**
+ * Non blocking writes, failures and retries
+ */
+public class SearchModuleAsyncTest {
+
+	private final static String CREATED = "{\"_index\":\"%s\",\"_id\":\"1\",\"_version\":1,\"result\":\"created\","
+			+ "\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},\"_seq_no\":0,\"_primary_term\":1}";
+	private final static String DELETED = "{\"_index\":\"%s\",\"_id\":\"1\",\"_version\":2,\"result\":\"deleted\","
+			+ "\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},\"_seq_no\":1,\"_primary_term\":1}";
+	private final static String ERROR = "{\"error\":{\"root_cause\":[],\"type\":\"%s\",\"reason\":\"%s\"},\"status\":%d}";
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+	private SearchModuleImpl module;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		properties.getProvisioning().setEnabled(false);
+		properties.getRetry().setInitialBackoffInMillis(1);
+		module = new SearchModuleImpl(properties);
+		module.configure(server.configuration());
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		module.close();
+		server.close();
+	}
+
+	@Test
+	public void indexAsync() throws Exception {
+
+		server.respond("PUT", "/products_en/_doc/1", 201, String.format(CREATED, "products_en"));
+		server.respond("PUT", "/keywords_en/_doc/1", 201, String.format(CREATED, "keywords_en"));
+
+		module.indexAsync(item()).get(10, TimeUnit.SECONDS);
+
+		assertEquals(2, server.getReceived().size());
+		//both requests are sent concurrently
+		assertTrue(server.getReceived().stream()
+				.anyMatch(r -> "/products_en/_doc/1".equals(r.path) && r.body.contains("\"name\":\"Zoom Fly\"")));
+
+	}
+
+	@Test
+	public void indexAsyncFailure() throws Exception {
+
+		server.respond("PUT", "/products_en/_doc/1", 400, String.format(ERROR, "mapper_parsing_exception", "failed to parse field [price]", 400));
+		server.respond("PUT", "/keywords_en/_doc/1", 201, String.format(CREATED, "keywords_en"));
+
+		CompletableFuture<Void> future = module.indexAsync(item());
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+
+		assertTrue(e.getCause() instanceof OpenSearchStatusException);
+		assertEquals(400, ResponseStatus.of(e));
+		assertTrue(e.getCause().getMessage().contains("failed to parse field [price]"));
+		//not retried
+		assertEquals(1, paths().stream().filter("/products_en/_doc/1"::equals).count());
+
+	}
+
+	@Test
+	public void indexAsyncRetriesRejectedRequests() throws Exception {
+
+		server.respond("PUT", "/products_en/_doc/1", 429, String.format(ERROR, "rejected_execution_exception", "rejected", 429));
+		server.respond("PUT", "/products_en/_doc/1", 201, String.format(CREATED, "products_en"));
+		server.respond("PUT", "/keywords_en/_doc/1", 201, String.format(CREATED, "keywords_en"));
+
+		module.indexAsync(item()).get(10, TimeUnit.SECONDS);
+
+		assertEquals(2, paths().stream().filter("/products_en/_doc/1"::equals).count());
+		assertEquals(1, paths().stream().filter("/keywords_en/_doc/1"::equals).count());
+
+	}
+
+	@Test
+	public void deleteAsync() throws Exception {
+
+		server.respond("DELETE", "/products_en/_doc/1", 200, String.format(DELETED, "products_en"));
+		server.respond("DELETE", "/keywords_en/_doc/1", 200, String.format(DELETED, "keywords_en"));
+
+		module.deleteAsync("default", Collections.singletonList("en"), 1L).get(10, TimeUnit.SECONDS);
+
+		assertEquals(2, server.getReceived().size());
+
+	}
+
+	@Test
+	public void deleteAsyncFailure() throws Exception {
+
+		server.respond("DELETE", "/products_en/_doc/1", 500, String.format(ERROR, "exception", "shard failure", 500));
+		server.respond("DELETE", "/keywords_en/_doc/1", 200, String.format(DELETED, "keywords_en"));
+
+		CompletableFuture<Void> future = module.deleteAsync("default", Collections.singletonList("en"), 1L);
+		ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+
+		assertEquals(500, ResponseStatus.of(e));
+		assertEquals(1, paths().stream().filter("/products_en/_doc/1"::equals).count());
+
+	}
+
+	private List<String> paths() {
+		return server.getReceived().stream().map(r -> r.path).collect(Collectors.toList());
+	}
+
+	private IndexItem item() {
+		IndexItem item = new IndexItem();
+		item.setId(1L);
+		item.setStore("default");
+		item.setLanguage("en");
+		item.setName("Zoom Fly");
+		item.setBrand("Nike");
+		return item;
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import modules.commons.search.request.Document;
+
+/**
+ * Multi document gets and deletes sent to the cluster
+ */
+public class SearchModuleDocumentsTest {
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+	private SearchModuleImpl module;
+	private final List<String> recorded = new CopyOnWriteArrayList<String>();
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		properties.getProvisioning().setEnabled(false);
+		properties.getBulk().setTimeoutInSeconds(10);
+		module = new SearchModuleImpl(properties);
+		module.setMetrics(new SearchMetrics() {
+			@Override
+			public void request(String operation, String index, String language, long durationInNanos, int status) {
+				recorded.add(operation + " " + index + " " + language);
+			}
+		});
+		module.configure(server.configuration());
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		module.close();
+		server.close();
+	}
+
+	@Test
+	public void documentsOfAllIdsAndLanguagesInOneMultiGet() throws Exception {
+
+		server.respond("POST", "/_mget", 200, "{\"docs\":["
+				+ found("products_en", 1L, "Zoom Fly") + ","
+				+ found("products_fr", 1L, "Zoom Fly FR") + ","
+				+ "{\"_index\":\"products_en\",\"_id\":\"2\",\"found\":false},"
+				+ "{\"_index\":\"products_fr\",\"_id\":\"2\",\"error\":{\"root_cause\":[],\"type\":\"index_not_found_exception\",\"reason\":\"no such index [products_fr]\"}}"
+				+ "]}");
+
+		Map<Long, List<Optional<Document>>> documents = module.getDocuments("default", Arrays.asList(1L, 2L), Arrays.asList("en", "fr"));
+
+		assertEquals(1, server.getReceived().size());
+		String body = server.getReceived().get(0).body;
+		assertTrue(body.contains("\"_index\":\"products_en\""));
+		assertTrue(body.contains("\"_index\":\"products_fr\""));
+
+		assertEquals(Arrays.asList(1L, 2L), Arrays.asList(documents.keySet().toArray()));
+		List<Optional<Document>> first = documents.get(1L);
+		assertEquals("Zoom Fly", first.get(0).get().getName());
+		assertEquals("1", first.get(0).get().getDocumentId());
+		assertEquals("Zoom Fly FR", first.get(1).get().getName());
+		//not found and failed items
+		assertFalse(documents.get(2L).get(0).isPresent());
+		assertFalse(documents.get(2L).get(1).isPresent());
+
+		assertEquals(Arrays.asList("getDocument products_en en,fr"), recorded);
+
+	}
+
+	@Test
+	public void deletesOfAllIdsAndLanguagesInOneBulk() throws Exception {
+
+		server.fail("2", 500, "exception", "shard failure", Integer.MAX_VALUE);
+
+		BulkResult result = module.delete("default", Arrays.asList("en", "fr"), Arrays.asList(1L, 2L));
+
+		assertEquals(1, server.getRequests().size());
+		List<String> lines = server.getRequests().get(0);
+		//products and keywords of each language
+		assertEquals(8, lines.size());
+		assertTrue(lines.stream().allMatch(l -> l.startsWith("{\"delete\"")));
+		assertEquals(2, lines.stream().filter(l -> l.contains("\"_index\":\"keywords_fr\"")).count());
+
+		assertEquals(4, result.getSuccessful());
+		assertEquals(4, result.getFailures().size());
+		assertTrue(result.getFailures().stream().allMatch(f -> "2".equals(f.getId()) && f.getStatus() == 500));
+
+	}
+
+	@Test
+	public void deleteFailsWithFailedDocuments() throws Exception {
+
+		server.fail("1", 500, "exception", "shard failure", Integer.MAX_VALUE);
+
+		Exception e = assertThrows(Exception.class, () -> module.delete(Arrays.asList("en"), 1L));
+
+		assertTrue(e.getMessage().contains("shard failure"));
+		assertEquals(1, server.getRequests().size());
+		assertEquals(2, server.getRequests().get(0).size());
+
+	}
+
+	private String found(String index, Long id, String name) {
+		return "{\"_index\":\"" + index + "\",\"_id\":\"" + id + "\",\"_version\":1,\"_seq_no\":0,\"_primary_term\":1,\"found\":true,"
+				+ "\"_source\":{\"id\":" + id + ",\"name\":\"" + name + "\"}}";
+	}
+
+}
@@ -0,0 +1,124 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import modules.commons.search.request.IndexItem;
+
+/**
+ * Full reindex into versioned indices and alias swap
+ */
+public class SearchModuleReindexTest {
+
+	private final static String ACKNOWLEDGED = "{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\"versioned\"}";
+	private final static String REFRESHED = "{\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0}}";
+	private final static String CREATED = "{\"_index\":\"%s\",\"_id\":\"2\",\"_version\":1,\"result\":\"created\","
+			+ "\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},\"_seq_no\":0,\"_primary_term\":1}";
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+	private SearchModuleImpl module;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		properties.getProvisioning().setEnabled(false);
+		properties.getBulk().setTimeoutInSeconds(10);
+		properties.getReindex().setForceMerge(false);
+		module = new SearchModuleImpl(properties);
+		module.configure(server.configuration());
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		module.close();
+		server.close();
+	}
+
+	@Test
+	public void writesMadeDuringTheLoadReplayedBeforeTheSwap() throws Exception {
+
+		//versioned indices creation, settings and refresh
+		server.respond("PUT", "/products_en_*", 200, ACKNOWLEDGED);
+		server.respond("PUT", "/keywords_en_*", 200, ACKNOWLEDGED);
+		server.respond("POST", "/products_en_*", 200, REFRESHED);
+		server.respond("POST", "/keywords_en_*", 200, REFRESHED);
+		//write through the aliases while items are loaded
+		server.respond("PUT", "/products_en/_doc/2", 201, String.format(CREATED, "products_en_20240101000000"));
+		server.respond("PUT", "/keywords_en/_doc/2", 201, String.format(CREATED, "keywords_en"));
+		//products_en is an alias of a previous reindex, keywords_en a concrete index
+		server.respond("GET", "/_alias/products_en", 200, "{\"products_en_20240101000000\":{\"aliases\":{\"products_en\":{}}}}");
+		server.respond("GET", "/_alias/keywords_en", 404, "{\"error\":\"alias [keywords_en] missing\",\"status\":404}");
+		server.respond("HEAD", "/keywords_en", 200, "");
+		server.respond("POST", "/_aliases", 200, ACKNOWLEDGED);
+		server.respond("DELETE", "/products_en_20240101000000", 200, ACKNOWLEDGED);
+
+		Iterable<IndexItem> items = () -> Arrays.asList(item(1L), item(3L)).stream()
+				.peek(this::indexMeanwhile)
+				.iterator();
+
+		BulkResult result = module.reindex(Collections.singletonList("en"), items);
+
+		assertEquals(2, server.getRequests().size());
+		List<String> load = server.getRequests().get(0);
+		assertEquals(8, load.size());
+		assertTrue(load.stream().noneMatch(l -> l.contains("\"_id\":\"2\"")));
+
+		//replayed on the versioned indices
+		List<String> replay = server.getRequests().get(1);
+		assertEquals(4, replay.size());
+		assertTrue(replay.get(0).matches(".*\"_index\":\"products_en_\\d{14}\".*\"_id\":\"2\".*"));
+		assertTrue(replay.get(2).matches(".*\"_index\":\"keywords_en_\\d{14}\".*\"_id\":\"2\".*"));
+		assertTrue(replay.get(1).contains("\"name\":\"product 2\""));
+		assertEquals(6, result.getSuccessful());
+
+		List<String> requests = requests();
+		int replayed = requests.lastIndexOf("POST /_bulk");
+		int swapped = requests.indexOf("POST /_aliases");
+		assertTrue(replayed < swapped);
+		assertEquals(2, requests.stream().filter("POST /_aliases"::equals).count());
+
+		String keywordsSwap = server.getReceived().get(requests.lastIndexOf("POST /_aliases")).body;
+		assertTrue(keywordsSwap.contains("\"remove_index\""));
+		String productsSwap = server.getReceived().get(swapped).body;
+		assertTrue(productsSwap.contains("\"remove\""));
+		assertTrue(productsSwap.contains("products_en_20240101000000"));
+
+		//previous index removed once aliases are swapped
+		assertEquals(requests.size() - 1, requests.indexOf("DELETE /products_en_20240101000000"));
+
+	}
+
+	private void indexMeanwhile(IndexItem loaded) {
+		if(loaded.getId() == 3L) {
+			try {
+				module.index(item(2L));
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+	private List<String> requests() {
+		return server.getReceived().stream().map(r -> r.method + " " + r.path).collect(Collectors.toList());
+	}
+
+	private IndexItem item(Long id) {
+		IndexItem item = new IndexItem();
+		item.setId(id);
+		item.setStore("default");
+		item.setLanguage("en");
+		item.setName("product " + id);
+		return item;
+	}
+
+}
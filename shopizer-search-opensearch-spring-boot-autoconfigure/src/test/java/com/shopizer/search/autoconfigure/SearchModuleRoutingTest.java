@@ -0,0 +1,112 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import com.shopizer.search.autoconfigure.BulkStubServer.Request;
+
+import modules.commons.search.request.Document;
+
+/**
+ * Documents of a store with search.opensearch.routing enabled
+ */
+public class SearchModuleRoutingTest {
+
+	private final static String FOUND = "{\"_index\":\"products_en\",\"_id\":\"1\",\"_version\":1,\"_seq_no\":0,\"_primary_term\":1,\"found\":true,"
+			+ "\"_source\":{\"id\":1,\"name\":\"Zoom Fly\"}}";
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+	private SearchModuleImpl module;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		properties.getProvisioning().setEnabled(false);
+		properties.getRouting().setEnabled(true);
+		properties.getBulk().setTimeoutInSeconds(10);
+		module = new SearchModuleImpl(properties);
+		module.configure(server.configuration());
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		module.close();
+		server.close();
+	}
+
+	@Test
+	public void storeRoutesRequests() throws Exception {
+
+		server.respond("GET", "/products_en/_doc/1", 200, FOUND);
+
+		Optional<Document> document = module.getDocument("default", 1L, "en", null);
+		BulkResult result = module.delete("default", Collections.singletonList("en"), Collections.singletonList(1L));
+
+		assertEquals("Zoom Fly", document.get().getName());
+		Request get = server.getReceived().get(0);
+		assertTrue(get.query.contains("routing=default"));
+
+		assertEquals(2, result.getSuccessful());
+		assertTrue(server.getRequests().get(0).stream().allMatch(l -> l.contains("\"routing\":\"default\"")));
+
+	}
+
+	@Test
+	public void unknownStoreOnAllShards() throws Exception {
+
+		server.respond("POST", "/products_en/_search", 200, "{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":5,\"successful\":5,\"skipped\":0,\"failed\":0},"
+				+ "\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},\"max_score\":1.0,\"hits\":[" + FOUND.replace("\"found\":true,", "\"_score\":1.0,") + "]}}");
+		server.respond("POST", "/products_en,keywords_en/_delete_by_query", 200, "{\"took\":1,\"timed_out\":false,\"total\":2,\"deleted\":2,\"batches\":1,"
+				+ "\"version_conflicts\":0,\"noops\":0,\"retries\":{\"bulk\":0,\"search\":0},\"throttled_millis\":0,\"requests_per_second\":-1.0,"
+				+ "\"throttled_until_millis\":0,\"failures\":[]}");
+
+		Optional<Document> document = module.getDocument(null, 1L, "en", null);
+		BulkResult result = module.delete(null, Collections.singletonList("en"), Collections.singletonList(1L));
+
+		assertEquals("Zoom Fly", document.get().getName());
+		Request search = server.getReceived().get(0);
+		assertTrue(search.body.contains("\"ids\":{\"values\":[\"1\"]"));
+		assertTrue(search.query == null || !search.query.contains("routing"));
+
+		assertEquals(2, result.getSuccessful());
+		assertTrue(server.getReceived().get(1).body.contains("\"ids\":{\"values\":[\"1\"]"));
+		assertTrue(server.getRequests().isEmpty());
+
+	}
+
+	@Test
+	public void methodsWithoutStoreRequireIt() throws Exception {
+
+		List<String> languages = Collections.singletonList("en");
+
+		requiresStore(() -> module.delete(languages, 1L));
+		requiresStore(() -> module.delete(languages, Arrays.asList(1L, 2L)));
+		requiresStore(() -> module.getDocument(1L, "en", null));
+		requiresStore(() -> module.getDocument(1L, languages, null));
+		requiresStore(() -> module.getDocuments(Arrays.asList(1L, 2L), languages));
+		requiresStore(() -> module.deleteAsync(languages, 1L));
+		requiresStore(() -> module.getDocumentAsync(1L, "en", null));
+		requiresStore(() -> module.enqueueDelete(languages, 1L));
+
+		assertTrue(server.getReceived().isEmpty());
+
+	}
+
+	private void requiresStore(Executable call) {
+		Exception e = assertThrows(Exception.class, call);
+		assertTrue(e.getMessage().startsWith("Store is required"));
+	}
+
+}
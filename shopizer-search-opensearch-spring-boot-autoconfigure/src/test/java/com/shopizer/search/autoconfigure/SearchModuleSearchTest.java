@@ -0,0 +1,144 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import modules.commons.search.request.IndexItem;
+import modules.commons.search.request.SearchRequest;
+import modules.commons.search.request.SearchResponse;
+
+/**
+ * Products and keywords searches sent to the cluster, autocomplete cache
+ */
+public class SearchModuleSearchTest {
+
+	private final static String CREATED = "{\"_index\":\"%s\",\"_id\":\"1\",\"_version\":1,\"result\":\"created\","
+			+ "\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0},\"_seq_no\":0,\"_primary_term\":1}";
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private BulkStubServer server;
+	private SearchModuleImpl module;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		properties.getProvisioning().setEnabled(false);
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		if(module != null) {
+			module.close();
+		}
+		server.close();
+	}
+
+	@Test
+	public void countNotTrackedWhenTotalHitsDisabled() throws Exception {
+
+		properties.getSearch().setTotalHits(SearchConfigurationProperties.TotalHitsMode.DISABLED);
+		configure();
+		server.respond("POST", "/products_en/_search", 200, productsResponse(null, 2));
+
+		SearchResponse response = module.searchProducts(request("shoes"));
+
+		assertTrue(server.getReceived().get(0).body.contains("\"track_total_hits\":-1"));
+		assertEquals(2, response.getItems().size());
+		assertEquals(SearchModuleImpl.COUNT_NOT_TRACKED, response.getCount());
+
+	}
+
+	@Test
+	public void countCappedAtThreshold() throws Exception {
+
+		properties.getSearch().setTotalHitsThreshold(100);
+		configure();
+		server.respond("POST", "/products_en/_search", 200, productsResponse("{\"value\":100,\"relation\":\"gte\"}", 2));
+
+		SearchResponse response = module.searchProducts(request("shoes"));
+
+		assertTrue(server.getReceived().get(0).body.contains("\"track_total_hits\":100"));
+		assertEquals(100, response.getCount());
+
+	}
+
+	@Test
+	public void keywordsServedFromCacheUntilAWriteOfTheStore() throws Exception {
+
+		properties.getKeywordsCache().setEnabled(true);
+		configure();
+		server.respond("POST", "/keywords_en/_search", 200, productsResponse("{\"value\":2,\"relation\":\"eq\"}", 2));
+		server.respond("PUT", "/products_en/_doc/1", 201, String.format(CREATED, "products_en"));
+		server.respond("PUT", "/keywords_en/_doc/1", 201, String.format(CREATED, "keywords_en"));
+
+		SearchResponse first = module.searchKeywords(request("zoo"));
+		//same normalized prefix
+		SearchResponse cached = module.searchKeywords(request(" Zoo "));
+		module.searchKeywords(request("other", "zoo"));
+
+		assertEquals(2, searches());
+		assertEquals(2, cached.getCount());
+		assertEquals(first.getItems().size(), cached.getItems().size());
+		assertEquals(first.getItems().get(0).getName(), cached.getItems().get(0).getName());
+
+		module.index(item());
+
+		module.searchKeywords(request("zoo"));
+		assertEquals(3, searches());
+		//entries of other stores are kept
+		module.searchKeywords(request("other", "zoo"));
+		assertEquals(3, searches());
+
+	}
+
+	private long searches() {
+		return server.getReceived().stream().filter(r -> "/keywords_en/_search".equals(r.path)).count();
+	}
+
+	private IndexItem item() {
+		IndexItem item = new IndexItem();
+		item.setId(1L);
+		item.setStore("default");
+		item.setLanguage("en");
+		item.setName("Zoom Fly");
+		return item;
+	}
+
+	private void configure() throws Exception {
+		module = new SearchModuleImpl(properties);
+		module.configure(server.configuration());
+	}
+
+	private SearchRequest request(String searchString) {
+		return request("default", searchString);
+	}
+
+	private SearchRequest request(String store, String searchString) {
+		SearchRequest request = new SearchRequest();
+		request.setStore(store);
+		request.setLanguage("en");
+		request.setSearchString(searchString);
+		return request;
+	}
+
+	private String productsResponse(String total, int hits) {
+		StringBuilder response = new StringBuilder("{\"took\":1,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},\"hits\":{");
+		if(total != null) {
+			response.append("\"total\":").append(total).append(',');
+		}
+		response.append("\"max_score\":1.0,\"hits\":[");
+		for(int i = 1; i <= hits; i++) {
+			if(i > 1) {
+				response.append(',');
+			}
+			response.append("{\"_index\":\"products_en\",\"_id\":\"").append(i).append("\",\"_score\":1.0,\"_source\":{\"id\":").append(i)
+				.append(",\"name\":\"shoes ").append(i).append("\"}}");
+		}
+		return response.append("]}}").toString();
+	}
+
+}
@@ -0,0 +1,217 @@
+package com.shopizer.search.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.common.xcontent.XContentType;
+
+/**
+ * Coalescing, backpressure and flush of queued writes
+ */
+public class WriteBehindQueueTest {
+
+	private final SearchConfigurationProperties properties = new SearchConfigurationProperties();
+	private final Set<String> flushed = Collections.synchronizedSet(new HashSet<String>());
+	private BulkStubServer server;
+
+	@BeforeEach
+	public void start() throws Exception {
+		server = new BulkStubServer();
+		//flushes are only explicit
+		properties.getWriteBehind().setFlushIntervalInMillis(3600000);
+		properties.getWriteBehind().setFlushSize(1000);
+		properties.getBulk().setTimeoutInSeconds(10);
+	}
+
+	@AfterEach
+	public void stop() throws Exception {
+		server.close();
+	}
+
+	@Test
+	public void pendingWritesOfAProductAreReplaced() throws Exception {
+
+		WriteBehindQueue queue = queue();
+		queue.offer("default", 1L, "en", index(1L, "first"));
+		queue.offer("default", 1L, "en", index(1L, "second"));
+		queue.offer("default", 1L, "fr", index(1L, "premier"));
+		queue.offer("default", 2L, "en", index(2L, "other"));
+		assertEquals(3, queue.size());
+
+		BulkResult result = queue.flush();
+		queue.close();
+
+		assertFalse(result.hasFailures());
+		assertEquals(1, server.getRequests().size());
+		String body = String.join("\n", server.getRequests().get(0));
+		assertFalse(body.contains("first"));
+		assertTrue(body.contains("second"));
+		assertTrue(body.contains("premier"));
+		assertTrue(body.contains("other"));
+		assertEquals(0, queue.size());
+
+	}
+
+	@Test
+	public void flushReportsStores() throws Exception {
+
+		WriteBehindQueue queue = queue();
+		queue.offer("default", 1L, "en", index(1L, "first"));
+		queue.offer("other", 2L, "en", index(2L, "second"));
+		queue.offer(null, 3L, "en", delete(3L));
+		assertTrue(flushed.isEmpty());
+
+		queue.flush();
+		queue.close();
+
+		Set<String> expected = new HashSet<String>();
+		expected.add("default");
+		expected.add("other");
+		expected.add(null);
+		assertEquals(expected, flushed);
+
+	}
+
+	@Test
+	public void fullQueueRejectsNewProducts() throws Exception {
+
+		properties.getWriteBehind().setMaxPending(2);
+		properties.getWriteBehind().setOfferTimeoutInMillis(50);
+
+		WriteBehindQueue queue = queue();
+		queue.offer("default", 1L, "en", index(1L, "first"));
+		queue.offer("default", 2L, "en", index(2L, "second"));
+		//replacing a pending write does not need room
+		queue.offer("default", 2L, "en", index(2L, "third"));
+
+		Exception e = assertThrows(Exception.class, () -> queue.offer("default", 3L, "en", index(3L, "fourth")));
+		assertTrue(e.getMessage().contains("full"));
+
+		queue.flush();
+		queue.offer("default", 3L, "en", index(3L, "fourth"));
+		queue.close();
+
+	}
+
+	@Test
+	public void flushSizeTriggersFlush() throws Exception {
+
+		properties.getWriteBehind().setFlushSize(2);
+
+		WriteBehindQueue queue = queue();
+		queue.offer("default", 1L, "en", index(1L, "first"));
+		queue.offer("default", 2L, "en", index(2L, "second"));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while(server.getRequests().isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, server.getRequests().size());
+		queue.close();
+
+	}
+
+	@Test
+	public void closeFlushesPendingWrites() throws Exception {
+
+		WriteBehindQueue queue = queue();
+		queue.offer("default", 1L, "en", index(1L, "first"));
+		queue.close();
+
+		assertEquals(1, server.getRequests().size());
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> queue.offer("default", 2L, "en", index(2L, "second")));
+		assertTrue(e.getMessage().contains("closed"));
+		assertEquals(0, queue.size());
+
+	}
+
+	@Test
+	public void rejectedWritesQueuedAgain() throws Exception {
+
+		//bulk retries exhausted
+		properties.getRetry().setMaxRetries(0);
+		server.fail("1", 429, "rejected_execution_exception", "rejected", 1);
+
+		WriteBehindQueue queue = queue();
+		queue.offer("default", 1L, "en", index(1L, "first"));
+		queue.offer("default", 2L, "en", index(2L, "second"));
+
+		BulkResult result = queue.flush();
+
+		assertFalse(result.hasFailures());
+		assertEquals(1, result.getSuccessful());
+		assertEquals(1, queue.size());
+
+		result = queue.flush();
+		queue.close();
+
+		assertFalse(result.hasFailures());
+		assertEquals(2, server.getRequests().size());
+		String retried = String.join("\n", server.getRequests().get(1));
+		assertTrue(retried.contains("first"));
+		assertFalse(retried.contains("second"));
+		assertEquals(0, queue.size());
+
+	}
+
+	@Test
+	public void failedWritesDroppedAndRecorded() throws Exception {
+
+		server.fail("2", 400, "mapper_parsing_exception", "failed to parse", 1);
+		List<String> recorded = Collections.synchronizedList(new ArrayList<String>());
+
+		WriteBehindQueue queue = queue(new SearchMetrics() {
+			@Override
+			public void failure(String operation, String index, String language, int status) {
+				recorded.add(operation + " " + index + " " + status);
+			}
+		});
+		queue.offer("default", 1L, "en", index(1L, "first"));
+		queue.offer("default", 2L, "en", index(2L, "second"));
+
+		BulkResult result = queue.flush();
+		queue.close();
+
+		assertEquals(1, result.getFailures().size());
+		assertEquals("2", result.getFailures().get(0).getId());
+		assertEquals(0, queue.size());
+		assertEquals(1, server.getRequests().size());
+		assertTrue(recorded.contains("writeBehind products_en 400"));
+
+	}
+
+	private WriteBehindQueue queue() throws Exception {
+		return queue(SearchMetrics.NOOP);
+	}
+
+	private WriteBehindQueue queue(SearchMetrics metrics) throws Exception {
+		return new WriteBehindQueue(server.searchClient(properties), properties.getBulk(), properties.getWriteBehind(), metrics, flushed::add);
+	}
+
+	private List<DocWriteRequest<?>> index(Long id, String name) {
+		List<DocWriteRequest<?>> requests = new ArrayList<DocWriteRequest<?>>();
+		requests.add(new IndexRequest("products_en").id(String.valueOf(id)).source("{\"name\":\"" + name + "\"}", XContentType.JSON));
+		return requests;
+	}
+
+	private List<DocWriteRequest<?>> delete(Long id) {
+		List<DocWriteRequest<?>> requests = new ArrayList<DocWriteRequest<?>>();
+		requests.add(new DeleteRequest("products_en", String.valueOf(id)));
+		return requests;
+	}
+
+}